@@ -5,6 +5,7 @@ import android.os.Bundle;
 import androidx.activity.EdgeToEdge;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
@@ -13,20 +14,25 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.asteroid.adapters.AsteroidAdapter;
+import com.example.asteroid.adapters.ReorderCallback;
 import com.example.asteroid.databinding.ActivityMainBinding;
 import com.example.asteroid.model.Asteroid;
+import com.example.asteroid.model.CatalogLoader;
+import com.example.asteroid.model.ListStateStore;
+import com.example.asteroid.model.SearchFilter;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 public class MainActivity extends AppCompatActivity {
-    List<String> AsteroidNames = new ArrayList<>(Arrays.asList("Ceres","Abtoliy","George","Ivan",
-            "Palas","Vesta"));
-    List<Integer> AsteroidPics = new ArrayList<>(Arrays.asList(R.drawable.ceres,R.drawable.abtoliy,R.drawable.george,
-            R.drawable.ivan,R.drawable.palas,R.drawable.vesta));
+    private static final String CATALOG_ASSET = "asteroids.json";
     List<Asteroid> asteroidList = new ArrayList<>();
+    private ListStateStore stateStore;
+    private final SearchFilter<Asteroid> searchFilter = new SearchFilter<>(Asteroid::getSearchText);
+    private String searchQuery = "";
+    // Set once the rows on screen are the whole list in its own order, so their positions
+    // are list positions; cleared while a search is filtered or on its way.
+    private boolean wholeListShown;
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -35,61 +41,126 @@ public class MainActivity extends AppCompatActivity {
         ActivityMainBinding binding = ActivityMainBinding
                 .inflate(getLayoutInflater());
         setContentView(binding.getRoot());
+        stateStore = ListStateStore.getInstance(this);
 
         ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.main), (v, insets) -> {
             Insets systemBars = insets.getInsets(WindowInsetsCompat.Type.systemBars());
             v.setPadding(systemBars.left, systemBars.top, systemBars.right, systemBars.bottom);
             return insets;
         });
-        LoadModel();
         LinearLayoutManager lm = new LinearLayoutManager(MainActivity.this);
         binding.recyclerViewAsteroid.setLayoutManager(lm);
 
-        AsteroidAdapter asteroidAdapter = new AsteroidAdapter(asteroidList);
+        AsteroidAdapter asteroidAdapter = new AsteroidAdapter();
         binding.recyclerViewAsteroid.setAdapter(asteroidAdapter);
 
         ItemTouchHelper helper = getItemTouchHelper(asteroidAdapter);
         helper.attachToRecyclerView(binding.recyclerViewAsteroid);
+
+        binding.searchViewAsteroid.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                searchQuery = newText;
+                ApplySearch(asteroidAdapter);
+                return true;
+            }
+        });
+
+        LoadModel(asteroidAdapter);
     }
 
     private ItemTouchHelper getItemTouchHelper(AsteroidAdapter asteroidAdapter) {
-        ItemTouchHelper.SimpleCallback callback =
-                new ItemTouchHelper.SimpleCallback(ItemTouchHelper.UP | ItemTouchHelper.DOWN,
-                        ItemTouchHelper.START | ItemTouchHelper.END) {
+        // Dragging is handled by ReorderCallback, which moves the asteroid in asteroidList
+        // once, when it is dropped.
+        ReorderCallback callback =
+                new ReorderCallback(ItemTouchHelper.START | ItemTouchHelper.END,
+                        asteroidAdapter, asteroidAdapter.getReorder(), asteroidList) {
+                    @Override
+                    protected void onItemMoved(int fromPosition, int toPosition) {
+                        stateStore.moveItem(asteroidList.get(toPosition).getId(), toPosition);
+                        // results from before the drop would put the row back
+                        searchFilter.cancel();
+                        asteroidAdapter.submitDroppedList(new ArrayList<>(asteroidList), fromPosition, toPosition);
+                        wholeListShown = true;
+                        if (!searchQuery.trim().isEmpty()) {
+                            // typed while dragging; its results were dropped above
+                            ApplySearch(asteroidAdapter);
+                        }
+                    }
+
                     @Override
-                    public boolean onMove(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder, @NonNull RecyclerView.ViewHolder target) {
-                        Collections.swap(asteroidList,viewHolder.getAdapterPosition(),
-                                target.getAdapterPosition());
-                        asteroidAdapter.notifyItemMoved(
-                                viewHolder.getAdapterPosition(),
-                                target.getAdapterPosition()
-                        );
-                        return true;
+                    public boolean isLongPressDragEnabled() {
+                        // Positions in search results are not positions in the list.
+                        return wholeListShown;
                     }
 
                     @Override
                     public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
-                        int position = viewHolder.getAdapterPosition();
+                        int position = viewHolder.getBindingAdapterPosition();
+                        if (position == RecyclerView.NO_POSITION) {
+                            return;
+                        }
+                        // the row may be a search result, so go by the asteroid, not the position
+                        Asteroid asteroid = asteroidAdapter.getCurrentList().get(position);
                         if (direction == ItemTouchHelper.START){
-                            asteroidList.remove(viewHolder.getAdapterPosition());
-                            asteroidAdapter.notifyItemRemoved(viewHolder.getAdapterPosition());
+                            stateStore.removeItem(asteroid.getId());
+                            asteroidList.remove(asteroid);
                         } else if(direction == ItemTouchHelper.END) {
-                            asteroidList.get(position).setTrackingStatus("Good");
+                            asteroid.setTrackingStatus("Good");
+                            stateStore.setStatus(asteroid.getId(), "Good");
+                            // same object in the old and new results, so the diff can't see this
                             asteroidAdapter.notifyItemChanged(position);
                         }
-
-
+                        ApplySearch(asteroidAdapter);
                     }
                 };
         ItemTouchHelper helper = new ItemTouchHelper(callback);
         return helper;
     }
 
-    private void LoadModel() {
+    private void LoadModel(AsteroidAdapter asteroidAdapter) {
+        // The catalog is read on a background thread; the list fills in when it is ready.
+        CatalogLoader.load(this, CATALOG_ASSET, R.array.asteroid_images,
+                (id, name, iconResource, status) -> {
+                    Asteroid eachAsteroid = new Asteroid(id, iconResource, name);
+                    if (status != null) {
+                        eachAsteroid.setTrackingStatus(status);
+                    }
+                    return eachAsteroid;
+                },
+                // then put back the order, removals and statuses saved last time
+                catalog -> stateStore.restore(catalog, Asteroid::getId, Asteroid::setTrackingStatus,
+                        asteroids -> {
+                            if (isDestroyed()) {
+                                return;
+                            }
+                            asteroidList.addAll(asteroids);
+                            ApplySearch(asteroidAdapter);
+                        }));
+    }
+
+    private void ApplySearch(AsteroidAdapter asteroidAdapter) {
+        // Filtered on a background thread; a newer query cancels this one.
+        boolean filtered = !searchQuery.trim().isEmpty();
+        wholeListShown = false;
+        searchFilter.filter(asteroidList, searchQuery, results ->
+                asteroidAdapter.submitList(results, () -> wholeListShown = !filtered));
+    }
 
-        for(int i = 0; i < AsteroidNames.size(); i++){
-            Asteroid eachAsteroid = new Asteroid(AsteroidPics.get(i),AsteroidNames.get(i));
-            asteroidList.add(eachAsteroid);
-        }
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        searchFilter.cancel();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        stateStore.flush();
     }
 }
\ No newline at end of file
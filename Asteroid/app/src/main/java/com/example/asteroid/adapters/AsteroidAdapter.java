@@ -5,17 +5,105 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.asteroid.databinding.LayoutAsteroidItemBinding;
+import com.example.asteroid.images.ThumbnailLoader;
 import com.example.asteroid.model.Asteroid;
 
 import java.util.List;
+import java.util.Objects;
 
 public class AsteroidAdapter extends RecyclerView.Adapter<AsteroidAdapter.AsteroidViewHolder> {
-    List<Asteroid> adapterAsteroidList;
-    public AsteroidAdapter(List<Asteroid> adapterAsteroidList){
-        this.adapterAsteroidList = adapterAsteroidList;
+    private static final DiffUtil.ItemCallback<Asteroid> DIFF_CALLBACK = new DiffUtil.ItemCallback<Asteroid>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Asteroid oldItem, @NonNull Asteroid newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Asteroid oldItem, @NonNull Asteroid newItem) {
+            return oldItem.getIconResource() == newItem.getIconResource()
+                    && Objects.equals(oldItem.getDesignation(), newItem.getDesignation())
+                    && Objects.equals(oldItem.getTrackingStatus(), newItem.getTrackingStatus());
+        }
+    };
+    // Passed to notifyItemRangeChanged so rows are rebound in place, without a change animation.
+    private static final Object PAYLOAD_REBIND = new Object();
+
+    // The asteroids on screen: the search results, diffed off the main thread.
+    private final AsyncListDiffer<Asteroid> differ;
+    // Rows bind through this, so a drag in progress shows the right asteroids.
+    private final DragReorder reorder = new DragReorder();
+    // Set while a dropped drag's list is swapped in: its row is already where the drag left it.
+    private boolean applyingDrop;
+
+    public AsteroidAdapter() {
+        ListUpdateCallback adapterUpdates = new AdapterListUpdateCallback(this);
+        differ = new AsyncListDiffer<>(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                if (!applyingDrop) {
+                    adapterUpdates.onInserted(position, count);
+                }
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                if (!applyingDrop) {
+                    adapterUpdates.onRemoved(position, count);
+                }
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                if (!applyingDrop) {
+                    adapterUpdates.onMoved(fromPosition, toPosition);
+                }
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                if (!applyingDrop) {
+                    adapterUpdates.onChanged(position, count, payload);
+                }
+            }
+        }, new AsyncDifferConfig.Builder<>(DIFF_CALLBACK).build());
+    }
+
+    public DragReorder getReorder() {
+        return reorder;
+    }
+
+    public List<Asteroid> getCurrentList() {
+        return differ.getCurrentList();
+    }
+
+    /** Diffs {@code asteroids} in the background; {@code commitCallback} runs once they are shown. */
+    public void submitList(List<Asteroid> asteroids, @Nullable Runnable commitCallback) {
+        differ.submitList(asteroids, commitCallback);
+    }
+
+    /**
+     * Shows {@code asteroids}, the list after a drag from {@code fromPosition} to
+     * {@code toPosition} was dropped. The rows are already where the drag left them, so
+     * the list is swapped in at once, with no diff and no move; the rows the drag passed
+     * over are rebound. A diff still running for an older list is dropped with it.
+     */
+    public void submitDroppedList(List<Asteroid> asteroids, int fromPosition, int toPosition) {
+        applyingDrop = true;
+        // Both run synchronously: clearing and refilling the differ is never diffed.
+        differ.submitList(null);
+        differ.submitList(asteroids);
+        applyingDrop = false;
+        int start = Math.min(fromPosition, toPosition);
+        notifyItemRangeChanged(start, Math.abs(toPosition - fromPosition) + 1, PAYLOAD_REBIND);
     }
 
     @NonNull
@@ -32,10 +120,11 @@ public class AsteroidAdapter extends RecyclerView.Adapter<AsteroidAdapter.Astero
 
     @Override
     public void onBindViewHolder(@NonNull AsteroidAdapter.AsteroidViewHolder holder, int position) {
-        Asteroid currentAsteroid = adapterAsteroidList.get(position);
+        Asteroid currentAsteroid = differ.getCurrentList().get(reorder.getListIndex(position));
 
-        holder.itemBinding.txtViewDesignation.setText(adapterAsteroidList.get(position).getDesignation());
-        holder.itemBinding.imgViewIcon.setImageResource(adapterAsteroidList.get(position).getIconResource());
+        holder.itemBinding.txtViewDesignation.setText(currentAsteroid.getDesignation());
+        ThumbnailLoader.getInstance(holder.itemView.getContext())
+                .load(holder.itemBinding.imgViewIcon, currentAsteroid.getIconResource());
 
         if(currentAsteroid.getTrackingStatus() != null && !currentAsteroid.getTrackingStatus().isEmpty()){
             holder.itemBinding.txtViewStatus.setText(currentAsteroid.getTrackingStatus());
@@ -44,9 +133,16 @@ public class AsteroidAdapter extends RecyclerView.Adapter<AsteroidAdapter.Astero
         }
     }
 
+    @Override
+    public void onViewRecycled(@NonNull AsteroidViewHolder holder) {
+        // Off screen now, so the thumbnail can go back to the loader's pool once it is evicted.
+        ThumbnailLoader.getInstance(holder.itemView.getContext())
+                .clear(holder.itemBinding.imgViewIcon);
+    }
+
     @Override
     public int getItemCount() {
-        return adapterAsteroidList.size();
+        return differ.getCurrentList().size();
     }
 
     public class AsteroidViewHolder extends RecyclerView.ViewHolder{
@@ -1,14 +1,24 @@
 package com.example.asteroid.model;
 
+import java.util.Locale;
+
 public class Asteroid {
+    private final int id;
     private String designation;
     private int iconResource;
     private String trackingStatus = "";
+    // lowercase designation and status, kept up to date by the setters for SearchFilter
+    private String searchText;
 
-    public Asteroid(int iconResource, String trackingStatus) {
+    public Asteroid(int id, int iconResource, String designation) {
+        this.id = id;
         this.designation = designation;
         this.iconResource = iconResource;
-        this.trackingStatus = trackingStatus;
+        updateSearchText();
+    }
+
+    public int getId() {
+        return id;
     }
 
     public String getDesignation() {
@@ -23,8 +33,13 @@ public class Asteroid {
         return trackingStatus;
     }
 
+    public String getSearchText() {
+        return searchText;
+    }
+
     public void setDesignation(String designation) {
         this.designation = designation;
+        updateSearchText();
     }
 
     public void setIconResource(int iconResource) {
@@ -33,5 +48,10 @@ public class Asteroid {
 
     public void setTrackingStatus(String trackingStatus) {
         this.trackingStatus = trackingStatus;
+        updateSearchText();
+    }
+
+    private void updateSearchText() {
+        searchText = (designation + " " + (trackingStatus == null ? "" : trackingStatus)).toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,146 @@
+package com.example.asteroid.model;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.JsonReader;
+import android.util.Log;
+
+import androidx.annotation.ArrayRes;
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams a list catalog out of a bundled JSON asset on a background thread.
+ * Items refer to their thumbnail by index into a typed array resource, so drawables
+ * are referenced from resources, where the resource shrinker can see them, and no
+ * name is looked up at run time:
+ * <pre>
+ * &lt;array name="asteroid_images"&gt;
+ *     &lt;item&gt;@drawable/ceres&lt;/item&gt;
+ *     &lt;item&gt;@drawable/vesta&lt;/item&gt;
+ * &lt;/array&gt;
+ *
+ * {"items": [{"name": "Ceres", "image": 0}, {"name": "Vesta", "image": 1, "status": "Good"}]}
+ * </pre>
+ * "status" is optional.
+ */
+public final class CatalogLoader {
+    private static final String TAG = "CatalogLoader";
+    private static final Executor EXECUTOR = Executors.newSingleThreadExecutor();
+
+    public interface ItemFactory<T> {
+        /**
+         * {@code id} is the item's index in the catalog, which stays the same between loads.
+         * {@code imageResource} is 0 when the item names no image the array has.
+         */
+        T create(int id, String name, @DrawableRes int imageResource, @Nullable String status);
+    }
+
+    public interface Callback<T> {
+        void onLoaded(List<T> items);
+    }
+
+    private CatalogLoader() {
+    }
+
+    /**
+     * Loads {@code assetName} off the main thread, with thumbnails taken from
+     * {@code imagesArray}, and hands the items to {@code callback} on it.
+     */
+    public static <T> void load(@NonNull Context context, @NonNull String assetName,
+                                @ArrayRes int imagesArray, @NonNull ItemFactory<T> factory,
+                                @NonNull Callback<T> callback) {
+        Context appContext = context.getApplicationContext();
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        EXECUTOR.execute(() -> {
+            List<T> items;
+            try {
+                items = read(appContext, assetName, imagesArray, factory);
+            } catch (IOException | IllegalStateException e) {
+                Log.e(TAG, "Could not read " + assetName, e);
+                items = new ArrayList<>();
+            }
+            List<T> loaded = items;
+            mainHandler.post(() -> callback.onLoaded(loaded));
+        });
+    }
+
+    private static <T> List<T> read(Context context, String assetName, @ArrayRes int imagesArray,
+                                    ItemFactory<T> factory) throws IOException {
+        ArrayList<T> items = new ArrayList<>();
+        int[] imageResources = readImages(context.getResources(), imagesArray);
+        try (JsonReader reader = new JsonReader(new InputStreamReader(
+                context.getAssets().open(assetName), StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                if (field.equals("items")) {
+                    readItems(reader, imageResources, factory, items);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        items.trimToSize();
+        return items;
+    }
+
+    private static int[] readImages(Resources resources, @ArrayRes int imagesArray) {
+        TypedArray images = resources.obtainTypedArray(imagesArray);
+        try {
+            int[] imageResources = new int[images.length()];
+            for (int i = 0; i < imageResources.length; i++) {
+                imageResources[i] = images.getResourceId(i, 0);
+            }
+            return imageResources;
+        } finally {
+            images.recycle();
+        }
+    }
+
+    private static <T> void readItems(JsonReader reader, int[] imageResources,
+                                      ItemFactory<T> factory, List<T> items) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String name = "";
+            int image = -1;
+            String status = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name":
+                        name = reader.nextString();
+                        break;
+                    case "image":
+                        image = reader.nextInt();
+                        break;
+                    case "status":
+                        status = reader.nextString();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            int imageResource = image >= 0 && image < imageResources.length ? imageResources[image] : 0;
+            if (imageResource == 0) {
+                Log.w(TAG, "No image " + image + " for \"" + name + "\"");
+            }
+            items.add(factory.create(items.size(), name, imageResource, status));
+        }
+        reader.endArray();
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.asteroid.model;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Remembers the order, removals and statuses of a catalog list across restarts. Rows are
+ * keyed by the catalog id of the item; POSITION always equals the item's index in the list
+ * and removed items keep their row with REMOVED set, so new catalog entries can be told
+ * apart from deleted ones.
+ *
+ * Changes are queued and written together, in one transaction, a moment after the last
+ * one, or right away on {@link #flush()}. Reads and writes share one thread, so a restore
+ * always sees every change queued before it.
+ */
+public class ListStateStore extends SQLiteOpenHelper {
+    public interface Callback<T> {
+        void onRestored(List<T> items);
+    }
+
+    private interface Change {
+        void apply(SQLiteDatabase db);
+    }
+
+    private static ListStateStore instance;
+    private static final String DATABASE_NAME = "ASTEROIDS_DATABASE";
+    private static final int DATABASE_VERSION = 1;
+    private static final String TABLE_NAME = "ITEM_STATE";
+    private static final String COL_ID = "ID";
+    private static final String COL_POSITION = "POSITION";
+    private static final String COL_STATUS = "STATUS";
+    private static final String COL_REMOVED = "REMOVED";
+    private static final long WRITE_DELAY_MS = 500;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Change> pending = new ArrayList<>();
+    private boolean writeScheduled;
+    // Used on the executor thread only.
+    private SQLiteStatement positionStatement;
+    private SQLiteStatement shiftDownStatement;
+    private SQLiteStatement shiftUpStatement;
+    private SQLiteStatement moveStatement;
+    private SQLiteStatement removeStatement;
+    private SQLiteStatement statusStatement;
+
+    public static synchronized ListStateStore getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new ListStateStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ListStateStore(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_NAME + "(" + COL_ID + " INTEGER PRIMARY KEY, "
+                + COL_POSITION + " INTEGER NOT NULL, " + COL_STATUS + " TEXT, "
+                + COL_REMOVED + " INTEGER NOT NULL DEFAULT 0)");
+        db.execSQL("CREATE INDEX " + TABLE_NAME + "_POSITION_INDEX ON " + TABLE_NAME
+                + "(" + COL_REMOVED + ", " + COL_POSITION + ")");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+    }
+
+    /**
+     * Puts {@code catalog} into its saved order, without removed items and with saved
+     * statuses, and hands the result to {@code callback} on the main thread. Catalog
+     * items the store has not seen yet go to the end, and rows for ids the catalog no
+     * longer has are dropped; if that leaves the saved positions out of step with the
+     * list, they are renumbered in the same transaction. Item ids must be their index in
+     * {@code catalog}.
+     */
+    public <T> void restore(@NonNull List<T> catalog, @NonNull ToIntFunction<T> idOf,
+                            @NonNull BiConsumer<T, String> setStatus, @NonNull Callback<T> callback) {
+        executor.execute(() -> {
+            List<T> restored = new ArrayList<>(catalog.size());
+            boolean[] known = new boolean[catalog.size()];
+            List<Integer> stale = new ArrayList<>();
+            // Set when a saved position is not the row's index in the restored list.
+            boolean renumber = false;
+            SQLiteDatabase db = getWritableDatabase();
+            try (Cursor cursor = db.query(TABLE_NAME, new String[]{COL_ID, COL_STATUS, COL_REMOVED, COL_POSITION},
+                    null, null, null, null, COL_REMOVED + ", " + COL_POSITION)) {
+                while (cursor.moveToNext()) {
+                    int id = cursor.getInt(0);
+                    if (id < 0 || id >= catalog.size()) {
+                        stale.add(id);
+                        continue;
+                    }
+                    known[id] = true;
+                    if (cursor.getInt(2) != 0) {
+                        continue;
+                    }
+                    if (cursor.getInt(3) != restored.size()) {
+                        renumber = true;
+                    }
+                    T item = catalog.get(id);
+                    if (!cursor.isNull(1)) {
+                        setStatus.accept(item, cursor.getString(1));
+                    }
+                    restored.add(item);
+                }
+            }
+            db.beginTransaction();
+            try {
+                for (int id : stale) {
+                    db.delete(TABLE_NAME, COL_ID + "=?", new String[]{String.valueOf(id)});
+                }
+                if (renumber) {
+                    // moveItem and removeItem shift rows by position, so positions must run 0..n-1.
+                    SQLiteStatement renumberStatement = db.compileStatement("UPDATE " + TABLE_NAME
+                            + " SET " + COL_POSITION + "=? WHERE " + COL_ID + "=?");
+                    for (int i = 0; i < restored.size(); i++) {
+                        renumberStatement.bindLong(1, i);
+                        renumberStatement.bindLong(2, idOf.applyAsInt(restored.get(i)));
+                        renumberStatement.executeUpdateDelete();
+                    }
+                    renumberStatement.close();
+                }
+                ContentValues values = new ContentValues();
+                for (T item : catalog) {
+                    int id = idOf.applyAsInt(item);
+                    if (id >= 0 && id < known.length && !known[id]) {
+                        values.put(COL_ID, id);
+                        values.put(COL_POSITION, restored.size());
+                        db.insert(TABLE_NAME, null, values);
+                        restored.add(item);
+                    }
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            mainHandler.post(() -> callback.onRestored(restored));
+        });
+    }
+
+    /** Moves the item to {@code toPosition}, shifting the items in between. */
+    public void moveItem(int id, int toPosition) {
+        queue(db -> {
+            int fromPosition = positionOf(id);
+            if (fromPosition < 0 || fromPosition == toPosition) {
+                return;
+            }
+            if (fromPosition < toPosition) {
+                shiftDownStatement.bindLong(1, fromPosition + 1);
+                shiftDownStatement.bindLong(2, toPosition);
+                shiftDownStatement.executeUpdateDelete();
+            } else {
+                shiftUpStatement.bindLong(1, toPosition);
+                shiftUpStatement.bindLong(2, fromPosition - 1);
+                shiftUpStatement.executeUpdateDelete();
+            }
+            moveStatement.bindLong(1, toPosition);
+            moveStatement.bindLong(2, id);
+            moveStatement.executeUpdateDelete();
+        });
+    }
+
+    /** Takes the item out of the list; it stays out when the catalog is loaded again. */
+    public void removeItem(int id) {
+        queue(db -> {
+            int fromPosition = positionOf(id);
+            if (fromPosition < 0) {
+                return;
+            }
+            removeStatement.bindLong(1, id);
+            removeStatement.executeUpdateDelete();
+            shiftDownStatement.bindLong(1, fromPosition + 1);
+            shiftDownStatement.bindLong(2, Integer.MAX_VALUE);
+            shiftDownStatement.executeUpdateDelete();
+        });
+    }
+
+    public void setStatus(int id, @Nullable String status) {
+        queue(db -> {
+            if (status == null) {
+                statusStatement.bindNull(1);
+            } else {
+                statusStatement.bindString(1, status);
+            }
+            statusStatement.bindLong(2, id);
+            statusStatement.executeUpdateDelete();
+        });
+    }
+
+    /** Writes queued changes now instead of waiting, e.g. when the app goes to the background. */
+    public void flush() {
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            writeScheduled = true;
+        }
+        executor.execute(this::writePending);
+    }
+
+    private void queue(Change change) {
+        synchronized (pending) {
+            pending.add(change);
+            if (writeScheduled) {
+                return;
+            }
+            writeScheduled = true;
+        }
+        executor.schedule(this::writePending, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void writePending() {
+        List<Change> changes;
+        synchronized (pending) {
+            writeScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            changes = new ArrayList<>(pending);
+            pending.clear();
+        }
+        SQLiteDatabase db = getWritableDatabase();
+        prepareStatements(db);
+        db.beginTransaction();
+        try {
+            for (Change change : changes) {
+                change.apply(db);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private int positionOf(int id) {
+        positionStatement.bindLong(1, id);
+        try {
+            return (int) positionStatement.simpleQueryForLong();
+        } catch (SQLiteDoneException e) {
+            return -1;
+        }
+    }
+
+    private void prepareStatements(SQLiteDatabase db) {
+        if (positionStatement != null) {
+            return;
+        }
+        String active = COL_REMOVED + "=0";
+        positionStatement = db.compileStatement("SELECT " + COL_POSITION + " FROM " + TABLE_NAME
+                + " WHERE " + COL_ID + "=? AND " + active);
+        shiftDownStatement = db.compileStatement("UPDATE " + TABLE_NAME + " SET " + COL_POSITION + "="
+                + COL_POSITION + "-1 WHERE " + active + " AND " + COL_POSITION + " BETWEEN ? AND ?");
+        shiftUpStatement = db.compileStatement("UPDATE " + TABLE_NAME + " SET " + COL_POSITION + "="
+                + COL_POSITION + "+1 WHERE " + active + " AND " + COL_POSITION + " BETWEEN ? AND ?");
+        moveStatement = db.compileStatement("UPDATE " + TABLE_NAME + " SET " + COL_POSITION + "=? WHERE "
+                + COL_ID + "=?");
+        removeStatement = db.compileStatement("UPDATE " + TABLE_NAME + " SET " + COL_REMOVED + "=1, "
+                + COL_POSITION + "=-1 WHERE " + COL_ID + "=?");
+        statusStatement = db.compileStatement("UPDATE " + TABLE_NAME + " SET " + COL_STATUS + "=? WHERE "
+                + COL_ID + "=?");
+    }
+}
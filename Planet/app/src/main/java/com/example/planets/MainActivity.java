@@ -1,13 +1,13 @@
 package com.example.planets;
 
 import android.os.Bundle;
-import android.util.Log;
 import android.widget.GridLayout;
 import android.widget.LinearLayout;
 
 import androidx.activity.EdgeToEdge;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
@@ -17,20 +17,25 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.planets.adapters.PlanetAdapter;
+import com.example.planets.adapters.ReorderCallback;
 import com.example.planets.databinding.ActivityMainBinding;
+import com.example.planets.model.CatalogLoader;
+import com.example.planets.model.ListStateStore;
 import com.example.planets.model.Planet;
+import com.example.planets.model.SearchFilter;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 public class MainActivity extends AppCompatActivity {
-    List<String> PlanetNames = new ArrayList<>(Arrays.asList("Earth","Jupiter","Mars",
-            "Mercury","Saturn","Uranus"));
-    List<Integer> PlanetPics = new ArrayList<>(Arrays.asList(R.drawable.earth,
-            R.drawable.jupiter,R.drawable.mars,R.drawable.mercury,R.drawable.saturn,R.drawable.uranus));
+    private static final String CATALOG_ASSET = "planets.json";
     List<Planet> planetList = new ArrayList<>();
+    private ListStateStore stateStore;
+    private final SearchFilter<Planet> searchFilter = new SearchFilter<>(Planet::getSearchText);
+    private String searchQuery = "";
+    // Set once the rows on screen are the whole list in its own order, so their positions
+    // are list positions; cleared while a search is filtered or on its way.
+    private boolean wholeListShown;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -41,67 +46,128 @@ public class MainActivity extends AppCompatActivity {
         ActivityMainBinding binding = ActivityMainBinding
                 .inflate(getLayoutInflater());
         setContentView(binding.getRoot());
+        stateStore = ListStateStore.getInstance(this);
 
         ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.main), (v, insets) -> {
             Insets systemBars = insets.getInsets(WindowInsetsCompat.Type.systemBars());
             v.setPadding(systemBars.left, systemBars.top, systemBars.right, systemBars.bottom);
             return insets;
         });
-        LoadModel();
         LinearLayoutManager lm = new LinearLayoutManager(MainActivity.this);
         binding.recyclerViewPlanet.setLayoutManager(lm);
 //        GridLayoutManager gm = new GridLayoutManager(MainActivity.this,2);
 //        binding.recyclerViewPlanet.setLayoutManager(gm);
 
 
-        PlanetAdapter planetAdapter = new PlanetAdapter(planetList);
+        PlanetAdapter planetAdapter = new PlanetAdapter();
         binding.recyclerViewPlanet.setAdapter(planetAdapter);
 
         ItemTouchHelper helper = getItemTouchHelper(planetAdapter);
         helper.attachToRecyclerView(binding.recyclerViewPlanet);
 
+        binding.searchViewPlanet.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                searchQuery = newText;
+                ApplySearch(planetAdapter);
+                return true;
+            }
+        });
+
+        LoadModel(planetAdapter);
     }
 
     private ItemTouchHelper getItemTouchHelper(PlanetAdapter planetAdapter) {
-        ItemTouchHelper.SimpleCallback callback =
-                new ItemTouchHelper.SimpleCallback(
-                        ItemTouchHelper.UP | ItemTouchHelper.DOWN,
-                        ItemTouchHelper.START | ItemTouchHelper.END
+        // Dragging is handled by ReorderCallback, which moves the planet in planetList
+        // once, when it is dropped.
+        ReorderCallback callback =
+                new ReorderCallback(
+                        ItemTouchHelper.START | ItemTouchHelper.END,
+                        planetAdapter, planetAdapter.getReorder(), planetList
                 ) {
                     @Override
-                    public boolean onMove(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder, @NonNull RecyclerView.ViewHolder target) {
-                        Log.d("RECYCLERVIEWDEMO","Drag detected "
-                                + "Source Ind = " + viewHolder.getAdapterPosition()
-                                + "Target Ind = " + target.getAdapterPosition());
-                        Collections.swap(planetList,viewHolder.getAdapterPosition(),
-                                target.getAdapterPosition());
-                        planetAdapter.notifyItemMoved(
-                                viewHolder.getAdapterPosition(),
-                                target.getAdapterPosition());
-                        return true;
+                    protected void onItemMoved(int fromPosition, int toPosition) {
+                        stateStore.moveItem(planetList.get(toPosition).getId(), toPosition);
+                        // results from before the drop would put the row back
+                        searchFilter.cancel();
+                        planetAdapter.submitDroppedList(new ArrayList<>(planetList), fromPosition, toPosition);
+                        wholeListShown = true;
+                        if (!searchQuery.trim().isEmpty()) {
+                            // typed while dragging; its results were dropped above
+                            ApplySearch(planetAdapter);
+                        }
+                    }
+
+                    @Override
+                    public boolean isLongPressDragEnabled() {
+                        // Positions in search results are not positions in the list.
+                        return wholeListShown;
                     }
 
                     @Override
                     public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
-                        int position = viewHolder.getAdapterPosition();
+                        int position = viewHolder.getBindingAdapterPosition();
+                        if (position == RecyclerView.NO_POSITION) {
+                            return;
+                        }
+                        // the row may be a search result, so go by the planet, not the position
+                        Planet planet = planetAdapter.getCurrentList().get(position);
                         if(direction == ItemTouchHelper.START) {
-                            planetList.remove(viewHolder.getAdapterPosition());
-                            planetAdapter.notifyItemRemoved(
-                                    viewHolder.getAdapterPosition()
-                            );
+                            stateStore.removeItem(planet.getId());
+                            planetList.remove(planet);
                         } else if (direction ==ItemTouchHelper.END){
-                            planetList.get(position).setStatus("Explored");
+                            planet.setStatus("Explored");
+                            stateStore.setStatus(planet.getId(), "Explored");
+                            // same object in the old and new results, so the diff can't see this
                             planetAdapter.notifyItemChanged(position);
                         }
+                        ApplySearch(planetAdapter);
                     }
                 };
         ItemTouchHelper helper = new ItemTouchHelper(callback);
         return helper;
     }
-    private void LoadModel(){
-        for (int i = 0; i < PlanetNames.size();i++){
-            Planet eachPlanet = new Planet(PlanetPics.get(i), PlanetNames.get(i));
-            planetList.add(eachPlanet);
-        }
+    private void LoadModel(PlanetAdapter planetAdapter){
+        // The catalog is read on a background thread; the list fills in when it is ready.
+        CatalogLoader.load(this, CATALOG_ASSET, R.array.planet_images,
+                (id, name, imageResource, status) -> {
+                    Planet eachPlanet = new Planet(id, imageResource, name);
+                    eachPlanet.setStatus(status);
+                    return eachPlanet;
+                },
+                // then put back the order, removals and statuses saved last time
+                catalog -> stateStore.restore(catalog, Planet::getId, Planet::setStatus,
+                        planets -> {
+                            if (isDestroyed()) {
+                                return;
+                            }
+                            planetList.addAll(planets);
+                            ApplySearch(planetAdapter);
+                        }));
+    }
+
+    private void ApplySearch(PlanetAdapter planetAdapter) {
+        // Filtered on a background thread; a newer query cancels this one.
+        boolean filtered = !searchQuery.trim().isEmpty();
+        wholeListShown = false;
+        searchFilter.filter(planetList, searchQuery, results ->
+                planetAdapter.submitList(results, () -> wholeListShown = !filtered));
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        searchFilter.cancel();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        stateStore.flush();
     }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.example.planets.adapters;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+
+/**
+ * Where a dragged row currently sits, kept apart from the list until the drag ends.
+ * While a row is dragged from {@code from} to {@code to} the rows in between show up
+ * shifted by one; {@link #getListIndex} tells an adapter which list item belongs at a
+ * position, so rows bound mid-drag show the right item. The list itself changes once,
+ * in {@link #finish}.
+ */
+public class DragReorder {
+    private int from = RecyclerView.NO_POSITION;
+    private int to = RecyclerView.NO_POSITION;
+
+    public boolean isDragging() {
+        return from != RecyclerView.NO_POSITION;
+    }
+
+    public void start(int position) {
+        from = position;
+        to = position;
+    }
+
+    /** Moves the dragged row to {@code position} and returns the position it left. */
+    public int moveTo(int position) {
+        int previous = to;
+        to = position;
+        return previous;
+    }
+
+    /** The index in the list of the item shown at adapter {@code position}. */
+    public int getListIndex(int position) {
+        if (!isDragging() || position < Math.min(from, to) || position > Math.max(from, to)) {
+            return position;
+        }
+        if (position == to) {
+            return from;
+        }
+        return from < to ? position + 1 : position - 1;
+    }
+
+    /**
+     * Applies the drag to {@code list} as one remove and add, and ends it.
+     * Returns {@code [from, to]}, or null when the row ended where it started.
+     */
+    public <T> int[] finish(List<T> list) {
+        int[] move = null;
+        if (isDragging() && from != to) {
+            list.add(to, list.remove(from));
+            move = new int[]{from, to};
+        }
+        from = RecyclerView.NO_POSITION;
+        to = RecyclerView.NO_POSITION;
+        return move;
+    }
+}
@@ -5,20 +5,106 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
 
 import com.example.planets.databinding.LayoutPlanetItemBinding;
+import com.example.planets.images.ThumbnailLoader;
 import com.example.planets.model.Planet;
 
 import java.util.List;
+import java.util.Objects;
 
 public class PlanetAdapter extends RecyclerView.Adapter<PlanetAdapter.PlanetViewHolder> {
+    private static final DiffUtil.ItemCallback<Planet> DIFF_CALLBACK = new DiffUtil.ItemCallback<Planet>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Planet oldItem, @NonNull Planet newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Planet oldItem, @NonNull Planet newItem) {
+            return oldItem.getImageResource() == newItem.getImageResource()
+                    && Objects.equals(oldItem.getPlanetName(), newItem.getPlanetName())
+                    && Objects.equals(oldItem.getStatus(), newItem.getStatus());
+        }
+    };
+    // Passed to notifyItemRangeChanged so rows are rebound in place, without a change animation.
+    private static final Object PAYLOAD_REBIND = new Object();
+
+    // The planets on screen: the search results, diffed off the main thread.
+    private final AsyncListDiffer<Planet> differ;
+    // Rows bind through this, so a drag in progress shows the right planets.
+    private final DragReorder reorder = new DragReorder();
+    // Set while a dropped drag's list is swapped in: its row is already where the drag left it.
+    private boolean applyingDrop;
+
+    public PlanetAdapter() {
+        ListUpdateCallback adapterUpdates = new AdapterListUpdateCallback(this);
+        differ = new AsyncListDiffer<>(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                if (!applyingDrop) {
+                    adapterUpdates.onInserted(position, count);
+                }
+            }
 
-    List<Planet> adapterPlanetList;
+            @Override
+            public void onRemoved(int position, int count) {
+                if (!applyingDrop) {
+                    adapterUpdates.onRemoved(position, count);
+                }
+            }
 
-    public PlanetAdapter(List<Planet> adapterPlanetList) {
-        this.adapterPlanetList = adapterPlanetList;
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                if (!applyingDrop) {
+                    adapterUpdates.onMoved(fromPosition, toPosition);
+                }
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                if (!applyingDrop) {
+                    adapterUpdates.onChanged(position, count, payload);
+                }
+            }
+        }, new AsyncDifferConfig.Builder<>(DIFF_CALLBACK).build());
+    }
+
+    public DragReorder getReorder() {
+        return reorder;
+    }
+
+    public List<Planet> getCurrentList() {
+        return differ.getCurrentList();
+    }
+
+    /** Diffs {@code planets} in the background; {@code commitCallback} runs once they are shown. */
+    public void submitList(List<Planet> planets, @Nullable Runnable commitCallback) {
+        differ.submitList(planets, commitCallback);
+    }
+
+    /**
+     * Shows {@code planets}, the list after a drag from {@code fromPosition} to
+     * {@code toPosition} was dropped. The rows are already where the drag left them, so
+     * the list is swapped in at once, with no diff and no move; the rows the drag passed
+     * over are rebound. A diff still running for an older list is dropped with it.
+     */
+    public void submitDroppedList(List<Planet> planets, int fromPosition, int toPosition) {
+        applyingDrop = true;
+        // Both run synchronously: clearing and refilling the differ is never diffed.
+        differ.submitList(null);
+        differ.submitList(planets);
+        applyingDrop = false;
+        int start = Math.min(fromPosition, toPosition);
+        notifyItemRangeChanged(start, Math.abs(toPosition - fromPosition) + 1, PAYLOAD_REBIND);
     }
 
     @NonNull
@@ -35,10 +121,11 @@ public class PlanetAdapter extends RecyclerView.Adapter<PlanetAdapter.PlanetView
 
     @Override
     public void onBindViewHolder(@NonNull PlanetViewHolder holder, int position) {
-        Planet currentPlanet = adapterPlanetList.get(position);
+        Planet currentPlanet = differ.getCurrentList().get(reorder.getListIndex(position));
 
-        holder.itemBiding.txtViewName.setText(adapterPlanetList.get(position).getPlanetName());
-        holder.itemBiding.imageViewPlanet.setImageResource(adapterPlanetList.get(position).getImageResource());
+        holder.itemBiding.txtViewName.setText(currentPlanet.getPlanetName());
+        ThumbnailLoader.getInstance(holder.itemView.getContext())
+                .load(holder.itemBiding.imageViewPlanet, currentPlanet.getImageResource());
 
         if(currentPlanet.getStatus() != null && !currentPlanet.getStatus().isEmpty()){
             holder.itemBiding.txtViewStatus.setText(currentPlanet.getStatus());
@@ -47,9 +134,16 @@ public class PlanetAdapter extends RecyclerView.Adapter<PlanetAdapter.PlanetView
         }
     }
 
+    @Override
+    public void onViewRecycled(@NonNull PlanetViewHolder holder) {
+        // Off screen now, so the thumbnail can go back to the loader's pool once it is evicted.
+        ThumbnailLoader.getInstance(holder.itemView.getContext())
+                .clear(holder.itemBiding.imageViewPlanet);
+    }
+
     @Override
     public int getItemCount() {
-        return adapterPlanetList.size();
+        return differ.getCurrentList().size();
     }
 
     public class PlanetViewHolder extends RecyclerView.ViewHolder {
@@ -0,0 +1,60 @@
+package com.example.planets.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.ItemTouchHelper;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+
+/**
+ * Drag to reorder for an adapter that binds through a {@link DragReorder}. Each step of
+ * a drag only moves the row on screen; the list gets a single remove and add when the
+ * row is dropped, and {@link #onItemMoved} is called once with where it started and
+ * where it ended. Subclasses handle swipes.
+ */
+public abstract class ReorderCallback extends ItemTouchHelper.SimpleCallback {
+    private final RecyclerView.Adapter<?> adapter;
+    private final DragReorder reorder;
+    private final List<?> list;
+
+    public ReorderCallback(int swipeDirs, @NonNull RecyclerView.Adapter<?> adapter,
+                           @NonNull DragReorder reorder, @NonNull List<?> list) {
+        super(ItemTouchHelper.UP | ItemTouchHelper.DOWN, swipeDirs);
+        this.adapter = adapter;
+        this.reorder = reorder;
+        this.list = list;
+    }
+
+    @Override
+    public void onSelectedChanged(@Nullable RecyclerView.ViewHolder viewHolder, int actionState) {
+        super.onSelectedChanged(viewHolder, actionState);
+        if (actionState == ItemTouchHelper.ACTION_STATE_DRAG && viewHolder != null) {
+            reorder.start(viewHolder.getBindingAdapterPosition());
+        }
+    }
+
+    @Override
+    public boolean onMove(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder,
+                          @NonNull RecyclerView.ViewHolder target) {
+        int targetPosition = target.getBindingAdapterPosition();
+        if (!reorder.isDragging() || targetPosition == RecyclerView.NO_POSITION) {
+            return false;
+        }
+        adapter.notifyItemMoved(reorder.moveTo(targetPosition), targetPosition);
+        return true;
+    }
+
+    @Override
+    public void clearView(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder) {
+        super.clearView(recyclerView, viewHolder);
+        int[] move = reorder.finish(list);
+        if (move != null) {
+            onItemMoved(move[0], move[1]);
+        }
+    }
+
+    /** Called once per drag, after the list has been updated. */
+    protected void onItemMoved(int fromPosition, int toPosition) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.planets.images;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads drawable resources into list thumbnails. Images are decoded on a background
+ * thread, subsampled to about the size of the view, and kept in an LRU cache sized as a
+ * fraction of the heap, so scrolling back over a row costs no decode at all. Bitmaps
+ * that fall out of the cache while no view shows them are handed to later decodes
+ * through inBitmap instead of being left to the garbage collector; one still on screen
+ * is left to the collector, since its pixels must not be overwritten.
+ *
+ * Call from the main thread, and {@link #clear} views that stop showing a thumbnail,
+ * e.g. from onViewRecycled, so their bitmaps can be reused.
+ */
+public class ThumbnailLoader {
+    private static final int CACHE_HEAP_DIVISOR = 8;
+    private static final int REUSABLE_HEAP_DIVISOR = 32;
+    private static final int DECODE_THREADS = 2;
+    private static ThumbnailLoader instance;
+
+    private final Resources resources;
+    private final ExecutorService executor = Executors.newFixedThreadPool(DECODE_THREADS);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<String, Bitmap> cache;
+    // What each view is waiting for, and what it shows. Views that go away drop out on their
+    // own, and nothing else holds on to them or to their bitmaps.
+    private final Map<ImageView, String> requested = new WeakHashMap<>();
+    private final Map<ImageView, Bitmap> shown = new WeakHashMap<>();
+    private final List<String> decoding = new ArrayList<>();
+    private final ReusableBitmaps reusable;
+
+    public static synchronized ThumbnailLoader getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new ThumbnailLoader(context.getApplicationContext().getResources());
+        }
+        return instance;
+    }
+
+    private ThumbnailLoader(Resources resources) {
+        this.resources = resources;
+        long maxMemory = Runtime.getRuntime().maxMemory();
+        reusable = new ReusableBitmaps(maxMemory / REUSABLE_HEAP_DIVISOR);
+        cache = new LruCache<String, Bitmap>((int) (maxMemory / CACHE_HEAP_DIVISOR)) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, @Nullable Bitmap newValue) {
+                if (!isShown(oldValue)) {
+                    reusable.offer(oldValue);
+                }
+            }
+        };
+    }
+
+    /** Shows the drawable in {@code view}, scaled down to the view's size; 0 leaves it empty. */
+    public void load(@NonNull ImageView view, @DrawableRes int resId) {
+        if (resId == 0) {
+            // Nothing to decode; any decode still pending for the view is dropped too.
+            clear(view);
+            return;
+        }
+        // Sized from the layout params where they are exact, so a row hits the same cache
+        // entry before and after its first layout. A weighted or wrap_content side takes
+        // the size of the other one.
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        int width = params != null && params.width > 0 ? params.width : view.getWidth();
+        int height = params != null && params.height > 0 ? params.height : view.getHeight();
+        if (params != null && params.width <= 0 && height > 0) {
+            width = height;
+        }
+        if (params != null && params.height <= 0 && width > 0) {
+            height = width;
+        }
+        String key = resId + ":" + width + "x" + height;
+        Bitmap bitmap = cache.get(key);
+        if (bitmap != null) {
+            requested.remove(view);
+            show(view, bitmap);
+            return;
+        }
+        requested.put(view, key);
+        show(view, null);
+        if (decoding.contains(key)) {
+            return;
+        }
+        decoding.add(key);
+        int reqWidth = width;
+        int reqHeight = height;
+        executor.execute(() -> {
+            Bitmap decoded = decode(resId, reqWidth, reqHeight);
+            mainHandler.post(() -> deliver(key, decoded));
+        });
+    }
+
+    private void deliver(String key, @Nullable Bitmap bitmap) {
+        decoding.remove(key);
+        if (bitmap == null) {
+            return;
+        }
+        cache.put(key, bitmap);
+        Iterator<Map.Entry<ImageView, String>> waiting = requested.entrySet().iterator();
+        while (waiting.hasNext()) {
+            Map.Entry<ImageView, String> entry = waiting.next();
+            if (entry.getValue().equals(key)) {
+                ImageView view = entry.getKey();
+                waiting.remove();
+                show(view, bitmap);
+            }
+        }
+    }
+
+    /** Empties {@code view} and forgets it, so its bitmap can be reused once it leaves the cache. */
+    public void clear(@NonNull ImageView view) {
+        requested.remove(view);
+        show(view, null);
+    }
+
+    private void show(ImageView view, @Nullable Bitmap bitmap) {
+        Bitmap previous = bitmap == null ? shown.remove(view) : shown.put(view, bitmap);
+        if (previous != bitmap || bitmap == null) {
+            view.setImageBitmap(bitmap);
+        }
+    }
+
+    // Only the views on screen, or recycled without being cleared, are in shown; a scan is cheap.
+    private boolean isShown(Bitmap bitmap) {
+        for (Bitmap shownBitmap : shown.values()) {
+            if (shownBitmap == bitmap) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Runs on a decode thread.
+    @Nullable
+    private Bitmap decode(@DrawableRes int resId, int reqWidth, int reqHeight) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        // Subsampling already fits the view; density scaling on top would only cost memory.
+        options.inScaled = false;
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, resId, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+        options.inSampleSize = sampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+        options.inJustDecodeBounds = false;
+        options.inMutable = true;
+        int sampledWidth = (options.outWidth + options.inSampleSize - 1) / options.inSampleSize;
+        int sampledHeight = (options.outHeight + options.inSampleSize - 1) / options.inSampleSize;
+        options.inBitmap = reusable.take(sampledWidth * sampledHeight * 4);
+        try {
+            return BitmapFactory.decodeResource(resources, resId, options);
+        } catch (IllegalArgumentException e) {
+            // The pooled bitmap did not fit after all; decode into a fresh one.
+            options.inBitmap = null;
+            return BitmapFactory.decodeResource(resources, resId, options);
+        }
+    }
+
+    /** The largest power of two that still leaves both sides at least as big as requested. */
+    static int sampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int sampleSize = 1;
+        if (reqWidth <= 0 || reqHeight <= 0) {
+            return sampleSize;
+        }
+        while (width / (sampleSize * 2) >= reqWidth && height / (sampleSize * 2) >= reqHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /** Bitmaps free for inBitmap, oldest dropped first once they hold more than maxBytes. */
+    private static final class ReusableBitmaps {
+        private final long maxBytes;
+        private final ArrayDeque<Bitmap> bitmaps = new ArrayDeque<>();
+        private long bytes;
+
+        ReusableBitmaps(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized void offer(Bitmap bitmap) {
+            if (!bitmap.isMutable() || bitmap.isRecycled()) {
+                return;
+            }
+            bitmaps.addLast(bitmap);
+            bytes += bitmap.getAllocationByteCount();
+            while (bytes > maxBytes) {
+                bytes -= bitmaps.removeFirst().getAllocationByteCount();
+            }
+        }
+
+        @Nullable
+        synchronized Bitmap take(int byteCount) {
+            Iterator<Bitmap> iterator = bitmaps.iterator();
+            while (iterator.hasNext()) {
+                Bitmap bitmap = iterator.next();
+                if (bitmap.getAllocationByteCount() >= byteCount) {
+                    iterator.remove();
+                    bytes -= bitmap.getAllocationByteCount();
+                    return bitmap;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package com.example.planets.model;
 
+import java.util.Locale;
+
 public class Planet {
+    private final int id;
     private String PlanetName;
     private int imageResource;
     private String status;
+    // lowercase name and status, kept up to date by the setters for SearchFilter
+    private String searchText;
 
-    public Planet(int imageResource, String planetName) {
+    public Planet(int id, int imageResource, String planetName) {
+        this.id = id;
         PlanetName = planetName;
         this.imageResource = imageResource;
+        updateSearchText();
+    }
 
+    public int getId() {
+        return id;
     }
 
     public String getPlanetName() {
@@ -23,8 +33,13 @@ public class Planet {
         return status;
     }
 
+    public String getSearchText() {
+        return searchText;
+    }
+
     public void setPlanetName(String planetName) {
         PlanetName = planetName;
+        updateSearchText();
     }
 
     public void setImageResource(int imageResource) {
@@ -33,5 +48,10 @@ public class Planet {
 
     public void setStatus(String status) {
         this.status = status;
+        updateSearchText();
+    }
+
+    private void updateSearchText() {
+        searchText = (PlanetName + " " + (status == null ? "" : status)).toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,92 @@
+package com.example.planets.model;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Filters a list on a background thread. An item matches when its search text contains
+ * every word of the query; the search text is expected to be lowercase already, so a
+ * query only lowercases itself. The search texts are read on the calling thread, so items
+ * may change while the match runs. Starting a query cancels the one before it: a stale
+ * query that has not started is dropped, one that is running stops at its next check,
+ * and neither delivers a result.
+ */
+public class SearchFilter<T> {
+    public interface Callback<T> {
+        void onFiltered(List<T> results);
+    }
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+    // How many items are matched between checks for a newer query.
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private final Function<T, String> searchText;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicInteger generation = new AtomicInteger();
+    private Future<?> running;
+
+    /** {@code searchText} returns an item's precomputed lowercase search text. */
+    public SearchFilter(@NonNull Function<T, String> searchText) {
+        this.searchText = searchText;
+    }
+
+    /** Matches a snapshot of {@code items} against {@code query} and delivers the result on the main thread. */
+    public void filter(@NonNull List<T> items, @NonNull String query, @NonNull Callback<T> callback) {
+        cancel();
+        int queryGeneration = generation.get();
+        List<T> snapshot = new ArrayList<>(items);
+        // Taken here rather than on the filter thread, which must not read the items
+        // while the main thread updates them.
+        String[] texts = new String[snapshot.size()];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = searchText.apply(snapshot.get(i));
+        }
+        String trimmed = query.trim().toLowerCase(Locale.ROOT);
+        String[] terms = trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+        running = EXECUTOR.submit(() -> {
+            List<T> results = terms.length == 0 ? snapshot : new ArrayList<>();
+            for (int i = 0; terms.length > 0 && i < snapshot.size(); i++) {
+                if (i % CANCEL_CHECK_INTERVAL == 0 && generation.get() != queryGeneration) {
+                    return;
+                }
+                if (matches(texts[i], terms)) {
+                    results.add(snapshot.get(i));
+                }
+            }
+            mainHandler.post(() -> {
+                if (generation.get() == queryGeneration) {
+                    callback.onFiltered(results);
+                }
+            });
+        });
+    }
+
+    /** Drops the query in progress, if any, without delivering its result. */
+    public void cancel() {
+        generation.incrementAndGet();
+        if (running != null) {
+            running.cancel(false);
+            running = null;
+        }
+    }
+
+    private static boolean matches(String text, String[] terms) {
+        for (String term : terms) {
+            if (!text.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
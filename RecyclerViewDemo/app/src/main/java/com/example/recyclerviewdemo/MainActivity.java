@@ -2,6 +2,7 @@ package com.example.recyclerviewdemo;
 
 import android.os.Bundle;
 import android.util.Log;
+import android.view.View;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
@@ -15,26 +16,23 @@ import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.recyclerviewdemo.adapters.ItemViewPool;
+import com.example.recyclerviewdemo.adapters.ReorderCallback;
 import com.example.recyclerviewdemo.adapters.TuneAdapter;
 import com.example.recyclerviewdemo.databinding.ActivityMainBinding;
+import com.example.recyclerviewdemo.model.CatalogLoader;
 import com.example.recyclerviewdemo.model.Tune;
+import com.google.android.material.tabs.TabLayout;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 public class MainActivity extends AppCompatActivity {
+    //how many rows each list shows; the benchmark asks for thousands
+    public static final String EXTRA_ITEM_COUNT = "item_count";
+    private static final String CATALOG_ASSET = "tunes.json";
 
-    List<String> TuneNames = new ArrayList<>
-                                (Arrays.asList("Beauty and The Beast",
-                                        "Game of Thrones", "Lion King",
-                                        "Mary Poppins", "Ozark"));
-    List<Integer> TunePics = new ArrayList<>
-                            (Arrays.asList(R.drawable.beauty,
-                                    R.drawable.gameofthrones, R.drawable.lionking,
-                                    R.drawable.marypoppins,R.drawable.ozark));
-    List<Tune> TuneList = new ArrayList<>(); //empty list
+    List<Tune> TuneList = new ArrayList<>(); //filled once the catalog is read
 
 
     @Override
@@ -52,16 +50,57 @@ public class MainActivity extends AppCompatActivity {
             v.setPadding(systemBars.left, systemBars.top, systemBars.right, systemBars.bottom);
             return insets;
         });
-        LoadModel();
-        Log.d("RECYCLERVIEWDEMO",TuneList.size() + " Items in the list");
+        //without the extra each tune and chapter is shown once
+        int itemCount = getIntent().getIntExtra(EXTRA_ITEM_COUNT, -1);
+
+        //one pool for both lists, with rows inflated ahead on a background thread
+        ItemViewPool viewPool = new ItemViewPool()
+                .setCapacity(R.layout.layout_tuneitem,
+                        getResources().getInteger(R.integer.tune_pool_size))
+                .setCapacity(R.layout.card_layout,
+                        getResources().getInteger(R.integer.card_pool_size));
+        setUpList(binding.recyclerViewTunes, viewPool);
+        setUpList(binding.recyclerViewChapters, viewPool);
 
         LinearLayoutManager lm =
                 new LinearLayoutManager(MainActivity.this);
         binding.recyclerViewTunes.setLayoutManager(lm);
 
-        TuneAdapter tuneAdapter = new TuneAdapter(TuneList);
+        TuneAdapter tuneAdapter = new TuneAdapter(TuneList, viewPool);
         binding.recyclerViewTunes.setAdapter(tuneAdapter);
 
+        binding.recyclerViewChapters.setLayoutManager(
+                new LinearLayoutManager(MainActivity.this));
+        binding.recyclerViewChapters.setAdapter(
+                new RecyclerAdapter(itemCount < 0
+                        ? RecyclerAdapter.CHAPTER_COUNT : itemCount, viewPool));
+
+        viewPool.inflateAhead(binding.recyclerViewTunes, R.layout.layout_tuneitem,
+                getResources().getInteger(R.integer.tune_rows_ahead));
+        viewPool.inflateAhead(binding.recyclerViewChapters, R.layout.card_layout,
+                getResources().getInteger(R.integer.card_rows_ahead));
+
+        binding.tabsLists.addOnTabSelectedListener(new TabLayout.OnTabSelectedListener() {
+            @Override
+            public void onTabSelected(TabLayout.Tab tab) {
+                boolean showTunes = tab.getPosition() == 0;
+                binding.recyclerViewTunes
+                        .setVisibility(showTunes ? View.VISIBLE : View.GONE);
+                binding.recyclerViewChapters
+                        .setVisibility(showTunes ? View.GONE : View.VISIBLE);
+            }
+
+            @Override
+            public void onTabUnselected(TabLayout.Tab tab) {
+
+            }
+
+            @Override
+            public void onTabReselected(TabLayout.Tab tab) {
+
+            }
+        });
+
         //GridLayoutManager gm = new GridLayoutManager
         //                        (MainActivity.this,
         //                                2);
@@ -70,47 +109,53 @@ public class MainActivity extends AppCompatActivity {
         ItemTouchHelper helper = getItemTouchHelper(tuneAdapter);
         helper.attachToRecyclerView(binding.recyclerViewTunes);
 
+        LoadModel(itemCount, tuneAdapter);
+    }
 
+    private void setUpList(RecyclerView recyclerView, ItemViewPool viewPool) {
+        recyclerView.setRecycledViewPool(viewPool);
+        //the lists fill their constraints, so adapter changes never resize them
+        recyclerView.setHasFixedSize(true);
+        recyclerView.setItemViewCacheSize(
+                getResources().getInteger(R.integer.item_view_cache_size));
     }
 
     //create helper object and return it
     private ItemTouchHelper
             getItemTouchHelper(TuneAdapter tuneAdapter){
 
-        //create simple call back object
-        ItemTouchHelper.SimpleCallback callback =
-                new ItemTouchHelper.SimpleCallback(
-                        ItemTouchHelper.UP | ItemTouchHelper.DOWN,
-                        ItemTouchHelper.START | ItemTouchHelper.END) {
+        //create call back object; dragging is handled by ReorderCallback,
+        //which moves the tune in TuneList once, when it is dropped
+        ReorderCallback callback =
+                new ReorderCallback(
+                        ItemTouchHelper.START | ItemTouchHelper.END,
+                        tuneAdapter, tuneAdapter.getReorder(), TuneList) {
             @Override
-            public boolean onMove(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder, @NonNull RecyclerView.ViewHolder target) {
+            protected void onItemMoved(int fromPosition, int toPosition) {
                 Log.d("RECYCLERVIEWDEMO","Drag detected "
-                        + "Source Ind = " + viewHolder.getBindingAdapterPosition()
-                        + "Target Ind = " + target.getBindingAdapterPosition());
-                Collections.swap(TuneList,
-                        viewHolder.getBindingAdapterPosition(),
-                        target.getBindingAdapterPosition());
-                tuneAdapter.notifyItemMoved(
-                        viewHolder.getBindingAdapterPosition(),
-                        target.getBindingAdapterPosition());
-
-                return true;
+                        + "Source Ind = " + fromPosition
+                        + "Target Ind = " + toPosition);
+                tuneAdapter.onTuneMoved(fromPosition, toPosition);
             }
 
             @Override
             public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
+                //read once: the row may already be on its way out of the adapter
+                int position = viewHolder.getBindingAdapterPosition();
+                if (position == RecyclerView.NO_POSITION) {
+                    return;
+                }
                 if (direction == ItemTouchHelper.START) {
-                    Log.d("RECYCLERVIEWDEMO","Left Swiped at index "
-                            + viewHolder.getBindingAdapterPosition());
-                    TuneList.remove(viewHolder.getBindingAdapterPosition());
+                    Log.d("RECYCLERVIEWDEMO","Left Swiped at index " + position);
+                    TuneList.remove(position);
+                    tuneAdapter.onTuneRemoved(position);
                     tuneAdapter
-                            .notifyItemRemoved(
-                                    viewHolder.getBindingAdapterPosition());
+                            .notifyItemRemoved(position);
                 } else if (direction == ItemTouchHelper.END){
-                    String upperCaseTuneName = TuneList.get(viewHolder.getBindingAdapterPosition())
+                    String upperCaseTuneName = TuneList.get(position)
                                                                 .getTuneName().toUpperCase();
-                    TuneList.get(viewHolder.getBindingAdapterPosition()).setTuneName(upperCaseTuneName);
-                    tuneAdapter.notifyItemChanged(viewHolder.getBindingAdapterPosition());
+                    TuneList.get(position).setTuneName(upperCaseTuneName);
+                    tuneAdapter.notifyItemChanged(position);
                 }
             }
         };
@@ -121,10 +166,23 @@ public class MainActivity extends AppCompatActivity {
         return helper;
     }
 
-    private void LoadModel(){
-        for (int i = 0; i < TuneNames.size();i++){
-            Tune eachTune = new Tune(TuneNames.get(i), TunePics.get(i));
-            TuneList.add(eachTune);
-        }
+    private void LoadModel(int itemCount, TuneAdapter tuneAdapter){
+        //the catalog is read on a background thread; the list fills in when it is ready
+        CatalogLoader.load(this, CATALOG_ASSET, R.array.tune_images,
+                (id, name, imageResource, status) -> new Tune(name, imageResource),
+                tunes -> {
+                    if (isDestroyed() || tunes.isEmpty()) {
+                        return;
+                    }
+                    //past the tunes there are, the list starts over
+                    int count = itemCount < 0 ? tunes.size() : itemCount;
+                    for (int i = 0; i < count; i++) {
+                        Tune tune = tunes.get(i % tunes.size());
+                        TuneList.add(i < tunes.size() ? tune
+                                : new Tune(tune.getTuneName(), tune.getTunePic()));
+                    }
+                    Log.d("RECYCLERVIEWDEMO",TuneList.size() + " Items in the list");
+                    tuneAdapter.notifyItemRangeInserted(0, count);
+                });
     }
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.example.recyclerviewdemo;
 
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
@@ -9,31 +8,54 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.recyclerviewdemo.adapters.ItemViewPool;
+import com.example.recyclerviewdemo.images.ThumbnailLoader;
 import com.google.android.material.snackbar.Snackbar;
 
 public class RecyclerAdapter extends RecyclerView.Adapter<RecyclerAdapter.ViewHolder> {
+    public static final int CHAPTER_COUNT = 8;
 
     private String[] titles = {"Chapter One", "Chapter Two", "Chapter Three", "Chapter Four", "Chapter Five", "Chapter Six", "Chapter Seven", "Chapter Eight"};
     private String[] details = {"Item one details", "Item two details", "Item three details", "Item four details", "Item five details", "Item six details", "Item seven details", "Item eight details"};
     private int[] images = {R.drawable.android_image_1, R.drawable.android_image_2, R.drawable.android_image_3, R.drawable.android_image_4, R.drawable.android_image_5, R.drawable.android_image_6, R.drawable.android_image_7, R.drawable.android_image_8};
+    private final int itemCount;
+    private final ItemViewPool viewPool;
+
+    // The chapters repeat once itemCount goes past the eight there are.
+    public RecyclerAdapter(int itemCount, ItemViewPool viewPool) {
+        this.itemCount = itemCount;
+        this.viewPool = viewPool;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return R.layout.card_layout;
+    }
+
     @NonNull
     @Override
     public RecyclerAdapter.ViewHolder onCreateViewHolder(@NonNull ViewGroup viewGroup, int viewType) {
-        View view = LayoutInflater.from(viewGroup.getContext()).inflate(R.layout.card_layout, viewGroup, false);
+        View view = viewPool.inflate(viewGroup, viewType);
         ViewHolder viewHolder = new ViewHolder(view);
         return viewHolder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerAdapter.ViewHolder viewHolder, int i) {
-        viewHolder.itemTitle.setText(titles[i]);
-        viewHolder.itemDescription.setText(details[i]);
-        viewHolder.imageView.setImageResource(images[i]);
+        int chapter = i % titles.length;
+        viewHolder.itemTitle.setText(titles[chapter]);
+        viewHolder.itemDescription.setText(details[chapter]);
+        ThumbnailLoader.getInstance(viewHolder.itemView.getContext()).load(viewHolder.imageView, images[chapter]);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull RecyclerAdapter.ViewHolder viewHolder) {
+        ThumbnailLoader.getInstance(viewHolder.itemView.getContext()).clear(viewHolder.imageView);
     }
 
     @Override
     public int getItemCount() {
-        return titles.length;
+        return itemCount;
     }
     public static class ViewHolder extends RecyclerView.ViewHolder {
         ImageView imageView;
@@ -0,0 +1,60 @@
+package com.example.recyclerviewdemo.adapters;
+
+import android.util.SparseArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayDeque;
+
+/**
+ * One RecycledViewPool for all the lists of a screen. Adapters use their item layout as
+ * the view type, so rows of different adapters never get mixed up and each layout gets
+ * its own capacity. Rows can also be inflated ahead of time on a background thread;
+ * adapters take those before inflating on the main thread.
+ */
+public class ItemViewPool extends RecyclerView.RecycledViewPool {
+    private final SparseArray<ArrayDeque<View>> inflatedViews = new SparseArray<>();
+    @Nullable
+    private AsyncLayoutInflater asyncInflater;
+
+    public ItemViewPool setCapacity(@LayoutRes int layoutId, int capacity) {
+        setMaxRecycledViews(layoutId, capacity);
+        return this;
+    }
+
+    /** Starts inflating {@code count} rows of the layout for {@code parent} off the main thread. */
+    public void inflateAhead(@NonNull ViewGroup parent, @LayoutRes int layoutId, int count) {
+        if (asyncInflater == null) {
+            asyncInflater = new AsyncLayoutInflater(parent.getContext());
+        }
+        for (int i = 0; i < count; i++) {
+            asyncInflater.inflate(layoutId, parent, (view, resid, viewParent) -> viewsFor(resid).add(view));
+        }
+    }
+
+    /** A row inflated ahead of time if one is ready, otherwise one inflated now. */
+    @NonNull
+    public View inflate(@NonNull ViewGroup parent, @LayoutRes int layoutId) {
+        View view = viewsFor(layoutId).poll();
+        if (view == null) {
+            view = LayoutInflater.from(parent.getContext()).inflate(layoutId, parent, false);
+        }
+        return view;
+    }
+
+    private ArrayDeque<View> viewsFor(int layoutId) {
+        ArrayDeque<View> views = inflatedViews.get(layoutId);
+        if (views == null) {
+            views = new ArrayDeque<>();
+            inflatedViews.put(layoutId, views);
+        }
+        return views;
+    }
+}
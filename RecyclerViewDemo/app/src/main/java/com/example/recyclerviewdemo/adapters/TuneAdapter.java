@@ -1,6 +1,5 @@
 package com.example.recyclerviewdemo.adapters;
 
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
@@ -9,13 +8,19 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.recyclerviewdemo.R;
 import com.example.recyclerviewdemo.databinding.LayoutTuneitemBinding;
+import com.example.recyclerviewdemo.images.ThumbnailLoader;
 import com.example.recyclerviewdemo.model.Tune;
 
 import java.util.List;
 
 public class TuneAdapter extends RecyclerView.Adapter<TuneAdapter.TuneViewHolder> {
+    //passed to notifyItemChanged when only the play/pause icon changed
+    static final Object PAYLOAD_PLAY_STATE = new Object();
     List<Tune> adapterTuneList;
     int SelectedInd = -1;
+    private final ItemViewPool viewPool;
+    //rows bind through this, so a drag in progress shows the right tunes
+    private final DragReorder reorder = new DragReorder();
 
     public List<Tune> getAdapterTuneList() {
         return adapterTuneList;
@@ -25,28 +30,66 @@ public class TuneAdapter extends RecyclerView.Adapter<TuneAdapter.TuneViewHolder
         this.adapterTuneList = adapterTuneList;
     }
 
+    public DragReorder getReorder() {
+        return reorder;
+    }
+
     public int getSelectedInd() {
         return SelectedInd;
     }
 
     public void setSelectedInd(int selectedInd) {
+        int previousInd = SelectedInd;
         SelectedInd = selectedInd;
+        //only the rows whose icon flips are rebound
+        if (previousInd != -1) {
+            notifyItemChanged(previousInd, PAYLOAD_PLAY_STATE);
+        }
+        if (selectedInd != -1 && selectedInd != previousInd) {
+            notifyItemChanged(selectedInd, PAYLOAD_PLAY_STATE);
+        }
+    }
+
+    //keep the selection on the same tune when rows are moved or removed,
+    //so the next selection change rebinds the right rows
+    public void onTuneMoved(int fromInd, int toInd) {
+        if (SelectedInd == fromInd) {
+            SelectedInd = toInd;
+        } else if (fromInd < toInd && SelectedInd > fromInd && SelectedInd <= toInd) {
+            SelectedInd--;
+        } else if (fromInd > toInd && SelectedInd >= toInd && SelectedInd < fromInd) {
+            SelectedInd++;
+        }
+    }
+
+    public void onTuneRemoved(int removedInd) {
+        if (SelectedInd == removedInd) {
+            SelectedInd = -1;
+        } else if (SelectedInd > removedInd) {
+            SelectedInd--;
+        }
     }
 
-    public TuneAdapter(List<Tune> adapterTuneList) {
+    public TuneAdapter(List<Tune> adapterTuneList, ItemViewPool viewPool) {
 
         this.adapterTuneList = adapterTuneList;
+        this.viewPool = viewPool;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        //the layout is the view type, so the pool can be shared with other adapters
+        return R.layout.layout_tuneitem;
     }
 
     @NonNull
     @Override
     public TuneViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         //return null;
-        //create binding object with external layout
+        //bind to a row inflated ahead of time, if the pool has one ready
         LayoutTuneitemBinding binding =
                 LayoutTuneitemBinding
-                        .inflate(LayoutInflater.from(parent.getContext()),
-                                                        parent,false);
+                        .bind(viewPool.inflate(parent, viewType));
         //create tune view holder object
         TuneViewHolder holder = new TuneViewHolder(binding.getRoot(), binding);
 
@@ -54,13 +97,35 @@ public class TuneAdapter extends RecyclerView.Adapter<TuneAdapter.TuneViewHolder
         return holder;
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull TuneViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_PLAY_STATE)) {
+            bindPlayState(holder, position);
+        } else {
+            super.onBindViewHolder(holder, position, payloads);
+        }
+    }
+
     @Override
     public void onBindViewHolder(@NonNull TuneViewHolder holder, int position) {
+        Tune tune = adapterTuneList.get(reorder.getListIndex(position));
         holder.itemBinding
-                .txtViewTune.setText(adapterTuneList.get(position).getTuneName());
-        holder.itemBinding.imgViewTune
-                .setImageResource(adapterTuneList.get(position).getTunePic());
-        if (position == SelectedInd){
+                .txtViewTune.setText(tune.getTuneName());
+        ThumbnailLoader.getInstance(holder.itemView.getContext())
+                .load(holder.itemBinding.imgViewTune, tune.getTunePic());
+        bindPlayState(holder, position);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull TuneViewHolder holder) {
+        //let the cache reuse the thumbnail once the row is off screen
+        ThumbnailLoader.getInstance(holder.itemView.getContext())
+                .clear(holder.itemBinding.imgViewTune);
+    }
+
+    private void bindPlayState(@NonNull TuneViewHolder holder, int position) {
+        if (reorder.getListIndex(position) == SelectedInd){
             holder.itemBinding.imgViewPlayPause
                     .setImageResource(R.drawable.pause);
         } else {
@@ -89,13 +154,14 @@ public class TuneAdapter extends RecyclerView.Adapter<TuneAdapter.TuneViewHolder
             this.itemBinding
                     .imgViewPlayPause
                     .setOnClickListener((View view) -> {
-                        if (SelectedInd !=
-                                getBindingAdapterPosition()){
-                            SelectedInd = getBindingAdapterPosition();
-                            notifyDataSetChanged();
+                        int position = getBindingAdapterPosition();
+                        if (position == RecyclerView.NO_POSITION || reorder.isDragging()) {
+                            return;
+                        }
+                        if (SelectedInd != position){
+                            setSelectedInd(position);
                         } else {
-                            SelectedInd = -1;
-                            notifyDataSetChanged();
+                            setSelectedInd(-1);
                         }
                     });
         }
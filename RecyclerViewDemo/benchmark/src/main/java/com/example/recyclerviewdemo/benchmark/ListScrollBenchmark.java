@@ -0,0 +1,82 @@
+package com.example.recyclerviewdemo.benchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Frame timing for fast flings through both lists with thousands of rows each. A run
+ * without jank shows frameOverrunMs staying below zero up to P99:
+ * ./gradlew :benchmark:connectedBenchmarkAndroidTest
+ */
+@RunWith(AndroidJUnit4.class)
+public class ListScrollBenchmark {
+    private static final String PACKAGE_NAME = "com.example.recyclerviewdemo";
+    // Must match MainActivity.EXTRA_ITEM_COUNT.
+    private static final String EXTRA_ITEM_COUNT = "item_count";
+    private static final int ITEM_COUNT = 5_000;
+    private static final int FLINGS = 10;
+    private static final int ITERATIONS = 5;
+    private static final long TIMEOUT_MS = 5_000;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void flingTunes() {
+        flingList("recyclerViewTunes", "txtViewTune", null);
+    }
+
+    @Test
+    public void flingChapters() {
+        flingList("recyclerViewChapters", "item_title", "Chapters");
+    }
+
+    private void flingList(String listId, String rowId, String tab) {
+        benchmarkRule.measureRepeated(
+                PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                CompilationMode.DEFAULT,
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait(intent -> {
+                        intent.putExtra(EXTRA_ITEM_COUNT, ITEM_COUNT);
+                        return Unit.INSTANCE;
+                    });
+                    if (tab != null) {
+                        scope.getDevice().findObject(By.text(tab)).click();
+                    }
+                    // The tunes arrive from a background load; wait for the first rows.
+                    scope.getDevice().wait(Until.hasObject(By.res(PACKAGE_NAME, rowId)), TIMEOUT_MS);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiDevice device = scope.getDevice();
+                    UiObject2 list = device.wait(Until.findObject(By.res(PACKAGE_NAME, listId)), TIMEOUT_MS);
+                    // Keep flings away from the screen edges so they don't turn into system gestures.
+                    list.setGestureMargin(device.getDisplayWidth() / 5);
+                    for (int i = 0; i < FLINGS; i++) {
+                        list.fling(Direction.DOWN);
+                    }
+                    device.waitForIdle();
+                    return Unit.INSTANCE;
+                });
+    }
+}
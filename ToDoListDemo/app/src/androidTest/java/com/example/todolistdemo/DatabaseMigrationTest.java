@@ -0,0 +1,123 @@
+package com.example.todolistdemo;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.todolistdemo.Model.ToDoModel;
+import com.example.todolistdemo.Utils.DatabaseHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Builds databases in the version 1 schema the app first shipped with, seeds them, and
+ * opens them through DatabaseHelper so every migration step runs over real data.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseMigrationTest {
+    private static final String TAG = "DatabaseMigrationTest";
+    private static final String UPGRADED_DB = "migration_upgraded.db";
+    private static final String FRESH_DB = "migration_fresh.db";
+    private static final int SEEDED_TASKS = 100_000;
+
+    private Context appContext;
+
+    @Before
+    public void setUp() {
+        appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        appContext.deleteDatabase(UPGRADED_DB);
+        appContext.deleteDatabase(FRESH_DB);
+    }
+
+    @After
+    public void tearDown() {
+        appContext.deleteDatabase(UPGRADED_DB);
+        appContext.deleteDatabase(FRESH_DB);
+    }
+
+    @Test
+    public void upgradeFromVersion1KeepsEveryTask() {
+        createVersion1Database(UPGRADED_DB, SEEDED_TASKS);
+
+        DatabaseHelper myDb = new DatabaseHelper(appContext, UPGRADED_DB);
+        try {
+            long start = SystemClock.elapsedRealtime();
+            myDb.getWritableDatabase();
+            Log.i(TAG, "Upgraded " + SEEDED_TASKS + " tasks in " + (SystemClock.elapsedRealtime() - start) + " ms");
+
+            assertEquals(SEEDED_TASKS, myDb.getAllTasks().size());
+            // Looked up by id, since getAllTasks() has no defined order. Seeded row i got id i + 1.
+            List<ToDoModel> seeded = myDb.getTasks(new int[]{1, SEEDED_TASKS});
+            assertEquals(2, seeded.size());
+            for (ToDoModel task : seeded) {
+                int i = task.getId() - 1;
+                assertEquals("Seeded task " + i, task.getTask());
+                assertEquals(i % 2, task.getStatus());
+            }
+
+            // The search index is rebuilt from the rows that were already there.
+            assertFalse(myDb.searchTasks("Seeded 9999", 10).isEmpty());
+        } finally {
+            myDb.close();
+        }
+    }
+
+    @Test
+    public void freshInstallMatchesUpgradedSchema() {
+        createVersion1Database(UPGRADED_DB, 10);
+        DatabaseHelper upgraded = new DatabaseHelper(appContext, UPGRADED_DB);
+        DatabaseHelper fresh = new DatabaseHelper(appContext, FRESH_DB);
+        try {
+            assertEquals(schemaOf(fresh.getReadableDatabase()), schemaOf(upgraded.getReadableDatabase()));
+        } finally {
+            upgraded.close();
+            fresh.close();
+        }
+    }
+
+    private void createVersion1Database(String name, int rows) {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(appContext.getDatabasePath(name), null);
+        try {
+            db.execSQL("CREATE TABLE IF NOT EXISTS TODO_TABLE (ID INTEGER PRIMARY KEY AUTOINCREMENT, TASK TEXT, STATUS INTEGER)");
+            db.beginTransaction();
+            try (SQLiteStatement insert = db.compileStatement("INSERT INTO TODO_TABLE (TASK, STATUS) VALUES (?, ?)")) {
+                for (int i = 0; i < rows; i++) {
+                    insert.bindString(1, "Seeded task " + i);
+                    insert.bindLong(2, i % 2);
+                    insert.executeInsert();
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            db.setVersion(1);
+        } finally {
+            db.close();
+        }
+    }
+
+    private static List<String> schemaOf(SQLiteDatabase db) {
+        List<String> schema = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("SELECT type, name, sql FROM sqlite_master"
+                + " WHERE name NOT LIKE 'sqlite_%' AND name != 'android_metadata' ORDER BY name", null)) {
+            while (cursor.moveToNext()) {
+                schema.add(cursor.getString(0) + " " + cursor.getString(1) + ": " + cursor.getString(2));
+            }
+        }
+        return schema;
+    }
+}
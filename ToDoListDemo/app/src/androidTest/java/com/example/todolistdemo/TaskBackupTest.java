@@ -0,0 +1,139 @@
+package com.example.todolistdemo;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.todolistdemo.Model.ListModel;
+import com.example.todolistdemo.Model.ToDoModel;
+import com.example.todolistdemo.Utils.DatabaseHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Round trips a small list through a backup and reads version 1 backups and damaged ones.
+ * Export and import speed is measured in the microbenchmark module.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TaskBackupTest {
+    private static final String SOURCE_DB = "backup_source.db";
+    private static final String TARGET_DB = "backup_target.db";
+    private static final int TASK_COUNT = 50;
+    private static final int MAGIC = 0x544F444F;
+    private static final long DUE_DATE = 1_700_000_000_000L;
+
+    private Context appContext;
+    private DatabaseHelper source;
+    private DatabaseHelper target;
+
+    @Before
+    public void setUp() {
+        appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        appContext.deleteDatabase(SOURCE_DB);
+        appContext.deleteDatabase(TARGET_DB);
+        source = new DatabaseHelper(appContext, SOURCE_DB);
+        target = new DatabaseHelper(appContext, TARGET_DB);
+    }
+
+    @After
+    public void tearDown() {
+        source.close();
+        target.close();
+        appContext.deleteDatabase(SOURCE_DB);
+        appContext.deleteDatabase(TARGET_DB);
+    }
+
+    @Test
+    public void roundTripKeepsOrderAndFields() throws IOException {
+        List<ToDoModel> tasks = new ArrayList<>(TASK_COUNT);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            ToDoModel task = new ToDoModel();
+            task.setTask("Task " + i + " ✓");
+            task.setStatus(i % 2);
+            task.setPriority(i % 3);
+            task.setDueDate(i % 4 == 0 ? 0 : DUE_DATE + i);
+            tasks.add(task);
+        }
+        source.insertTasks(tasks);
+
+        byte[] backup = export(source);
+        assertEquals(TASK_COUNT, target.importTasks(ListModel.DEFAULT_LIST_ID, channel(backup)));
+
+        List<ToDoModel> expected = source.getTasksPage(ListModel.DEFAULT_LIST_ID, null, TASK_COUNT);
+        List<ToDoModel> imported = target.getTasksPage(ListModel.DEFAULT_LIST_ID, null, TASK_COUNT);
+        assertEquals(TASK_COUNT, imported.size());
+        for (int i = 0; i < TASK_COUNT; i++) {
+            assertEquals(expected.get(i).getTask(), imported.get(i).getTask());
+            assertEquals(expected.get(i).getStatus(), imported.get(i).getStatus());
+            assertEquals(expected.get(i).getPriority(), imported.get(i).getPriority());
+            assertEquals(expected.get(i).getDueDate(), imported.get(i).getDueDate());
+        }
+        // Exporting the imported copy has to reproduce the original backup byte for byte.
+        assertArrayEquals(backup, export(target));
+    }
+
+    @Test
+    public void readsVersionOneBackups() throws IOException {
+        byte[] first = "First".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "Second".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer backup = ByteBuffer.allocate(3 * Integer.BYTES
+                + 2 * (Byte.BYTES + Integer.BYTES) + first.length + second.length);
+        backup.putInt(MAGIC).putInt(1).putInt(2);
+        backup.put((byte) 1).putInt(first.length).put(first);
+        backup.put((byte) 0).putInt(second.length).put(second);
+
+        assertEquals(2, target.importTasks(ListModel.DEFAULT_LIST_ID, channel(backup.array())));
+
+        List<ToDoModel> imported = target.getTasksPage(ListModel.DEFAULT_LIST_ID, null, 10);
+        assertEquals(2, imported.size());
+        assertEquals("First", imported.get(0).getTask());
+        assertEquals(1, imported.get(0).getStatus());
+        assertEquals(0, imported.get(0).getPriority());
+        assertEquals(0, imported.get(0).getDueDate());
+        assertEquals("Second", imported.get(1).getTask());
+        assertEquals(0, imported.get(1).getStatus());
+    }
+
+    @Test
+    public void rejectsABadHeader() {
+        ByteBuffer notABackup = ByteBuffer.allocate(3 * Integer.BYTES).putInt(0x12345678).putInt(2).putInt(1);
+        ByteBuffer futureVersion = ByteBuffer.allocate(3 * Integer.BYTES).putInt(MAGIC).putInt(99).putInt(1);
+        byte[] truncatedHeader = Arrays.copyOf(futureVersion.array(), Integer.BYTES + 2);
+        for (byte[] backup : new byte[][]{notABackup.array(), futureVersion.array(), truncatedHeader}) {
+            try {
+                target.importTasks(ListModel.DEFAULT_LIST_ID, channel(backup));
+                fail("Imported a backup with a bad header");
+            } catch (IOException expected) {
+                // The header is checked before anything is written.
+            }
+        }
+        assertTrue(target.getTasksPage(ListModel.DEFAULT_LIST_ID, null, 10).isEmpty());
+    }
+
+    private static byte[] export(DatabaseHelper db) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        db.exportTasks(ListModel.DEFAULT_LIST_ID, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static ReadableByteChannel channel(byte[] backup) {
+        return Channels.newChannel(new ByteArrayInputStream(backup));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.todolistdemo;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteConstraintException;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.todolistdemo.Model.ListModel;
+import com.example.todolistdemo.Model.ToDoModel;
+import com.example.todolistdemo.Utils.DatabaseHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class TaskListsTest {
+    private DatabaseHelper myDb;
+
+    @Before
+    public void setUp() {
+        Context appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        myDb = new DatabaseHelper(appContext, null);
+    }
+
+    @After
+    public void tearDown() {
+        myDb.close();
+    }
+
+    @Test
+    public void pagesOnlyHoldTheirOwnList() {
+        int groceries = myDb.insertList("Groceries");
+        for (int i = 0; i < 3; i++) {
+            myDb.insertTask(task("Inbox " + i, ListModel.DEFAULT_LIST_ID));
+            myDb.insertTask(task("Groceries " + i, groceries));
+        }
+
+        List<ToDoModel> page = myDb.getTasksPage(groceries, null, 2);
+        assertEquals("Groceries 2", page.get(0).getTask());
+        assertEquals("Groceries 1", page.get(1).getTask());
+        page = myDb.getTasksPage(groceries, page.get(1), 2);
+        assertEquals(1, page.size());
+        assertEquals("Groceries 0", page.get(0).getTask());
+        assertEquals(groceries, page.get(0).getListId());
+
+        assertEquals(3, myDb.getTasksPage(ListModel.DEFAULT_LIST_ID, null, 10).size());
+        assertEquals(2, myDb.getLists().size());
+    }
+
+    @Test(expected = SQLiteConstraintException.class)
+    public void tasksNeedAnExistingList() {
+        myDb.insertTask(task("Orphan", 42));
+    }
+
+    private static ToDoModel task(String text, int listId) {
+        ToDoModel task = new ToDoModel();
+        task.setTask(text);
+        task.setListId(listId);
+        return task;
+    }
+}
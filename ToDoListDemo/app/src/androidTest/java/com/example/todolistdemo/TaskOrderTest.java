@@ -0,0 +1,91 @@
+package com.example.todolistdemo;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.todolistdemo.Model.ListModel;
+import com.example.todolistdemo.Model.ToDoModel;
+import com.example.todolistdemo.Utils.DatabaseHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class TaskOrderTest {
+    private static final int TASKS = 70;
+    // Well past the ~50 halvings a gap between two doubles allows.
+    private static final int MOVES = 200;
+
+    private DatabaseHelper myDb;
+
+    @Before
+    public void setUp() {
+        Context appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        myDb = new DatabaseHelper(appContext, null);
+    }
+
+    @After
+    public void tearDown() {
+        myDb.close();
+    }
+
+    @Test
+    public void repeatedMovesIntoOneGapKeepTheirOrder() {
+        for (int i = 0; i < TASKS; i++) {
+            ToDoModel task = new ToDoModel();
+            task.setTask("Task " + i);
+            task.setListId(ListModel.DEFAULT_LIST_ID);
+            myDb.insertTask(task);
+        }
+        List<Integer> expected = ids(myDb.getTasksPage(ListModel.DEFAULT_LIST_ID, null, TASKS));
+        int top = expected.get(0);
+
+        // Every move drops a task right below the top one, so each lands in the gap the last one left.
+        for (int i = 0; i < MOVES; i++) {
+            Integer id = expected.get(1 + (i * 7) % (TASKS - 1));
+            expected.remove(id);
+            expected.add(1, id);
+            myDb.moveTask(id, top);
+        }
+
+        assertEquals(expected, ids(myDb.getTasksPage(ListModel.DEFAULT_LIST_ID, null, TASKS)));
+    }
+
+    @Test
+    public void movingToTheEndsUsesRowsNotPagedIn() {
+        for (int i = 0; i < 5; i++) {
+            ToDoModel task = new ToDoModel();
+            task.setTask("Task " + i);
+            task.setListId(ListModel.DEFAULT_LIST_ID);
+            myDb.insertTask(task);
+        }
+        List<Integer> expected = ids(myDb.getTasksPage(ListModel.DEFAULT_LIST_ID, null, 5));
+
+        // The third row decides the key even when only two rows are paged in.
+        Integer moved = expected.remove(0);
+        expected.add(1, moved);
+        myDb.moveTask(moved, expected.get(0));
+        Integer last = expected.remove(4);
+        expected.add(0, last);
+        myDb.moveTask(last, -1);
+
+        assertEquals(expected, ids(myDb.getTasksPage(ListModel.DEFAULT_LIST_ID, null, 5)));
+    }
+
+    private static List<Integer> ids(List<ToDoModel> tasks) {
+        List<Integer> ids = new ArrayList<>(tasks.size());
+        for (ToDoModel task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.todolistdemo;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Looper;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.todolistdemo.Model.ToDoModel;
+import com.example.todolistdemo.Utils.DatabaseHelper;
+import com.example.todolistdemo.Utils.TaskChange;
+import com.example.todolistdemo.Utils.TaskRepository;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class TaskRepositoryTest {
+    private final AtomicInteger mainThreadAccesses = new AtomicInteger();
+    private final AtomicInteger backgroundAccesses = new AtomicInteger();
+    private TaskRepository repository;
+
+    @Before
+    public void setUp() {
+        Context appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        // A null name keeps the database in memory, so the app's real tasks are untouched.
+        DatabaseHelper myDb = new DatabaseHelper(appContext, null) {
+            @Override
+            public SQLiteDatabase getWritableDatabase() {
+                recordAccess();
+                return super.getWritableDatabase();
+            }
+
+            @Override
+            public SQLiteDatabase getReadableDatabase() {
+                recordAccess();
+                return super.getReadableDatabase();
+            }
+        };
+        repository = new TaskRepository(myDb);
+    }
+
+    private void recordAccess() {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            mainThreadAccesses.incrementAndGet();
+        } else {
+            backgroundAccesses.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void sqliteWorkNeverRunsOnMainLooper() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<List<ToDoModel>> result = new AtomicReference<>();
+        AtomicBoolean callbackOnMain = new AtomicBoolean();
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            ToDoModel first = new ToDoModel();
+            first.setTask("Buy milk");
+            ToDoModel second = new ToDoModel();
+            second.setTask("Walk the dog");
+            repository.insertTask(first);
+            repository.insertTask(second);
+            repository.updateTask(1, "Buy oat milk");
+            repository.updateStatus(1, 1);
+            repository.deleteTask(2);
+            repository.getAllTasks(tasks -> {
+                callbackOnMain.set(Looper.myLooper() == Looper.getMainLooper());
+                result.set(tasks);
+                done.countDown();
+            });
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, mainThreadAccesses.get());
+        assertTrue(backgroundAccesses.get() > 0);
+        assertTrue(callbackOnMain.get());
+
+        List<ToDoModel> tasks = result.get();
+        assertEquals(1, tasks.size());
+        assertEquals("Buy oat milk", tasks.get(0).getTask());
+        assertEquals(1, tasks.get(0).getStatus());
+    }
+
+    @Test
+    public void changesReachListenersOnMainLooper() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(3);
+        List<TaskChange> changes = new ArrayList<>();
+        AtomicBoolean allOnMain = new AtomicBoolean(true);
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            repository.addChangeListener(change -> {
+                allOnMain.compareAndSet(true, Looper.myLooper() == Looper.getMainLooper());
+                changes.add(change);
+                done.countDown();
+            });
+            ToDoModel task = new ToDoModel();
+            task.setTask("Buy milk");
+            repository.insertTask(task);
+            repository.updateStatus(1, 1);
+            repository.deleteTask(1);
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(allOnMain.get());
+        assertEquals(TaskChange.INSERTED, changes.get(0).type);
+        assertEquals(TaskChange.UPDATED, changes.get(1).type);
+        assertEquals(TaskChange.DELETED, changes.get(2).type);
+        assertArrayEquals(new int[]{1}, changes.get(2).ids);
+    }
+
+    @Test
+    public void bufferedTogglesAreWrittenInOneTransaction() throws InterruptedException {
+        int taskCount = 300;
+        CountDownLatch inserted = new CountDownLatch(1);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            List<ToDoModel> tasks = new ArrayList<>();
+            for (int i = 0; i < taskCount; i++) {
+                ToDoModel task = new ToDoModel();
+                task.setTask("Task " + i);
+                tasks.add(task);
+            }
+            repository.insertTasks(tasks, result -> inserted.countDown());
+        });
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch done = new CountDownLatch(1);
+        List<TaskChange> changes = new ArrayList<>();
+        AtomicReference<List<ToDoModel>> result = new AtomicReference<>();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            repository.addChangeListener(changes::add);
+            // Every task is toggled on, off and on again.
+            for (int round = 0; round < 3; round++) {
+                for (int id = 1; id <= taskCount; id++) {
+                    repository.updateStatusLater(id, 1 - round % 2);
+                }
+            }
+            repository.flushStatuses();
+            repository.getAllTasks(tasks -> {
+                result.set(tasks);
+                done.countDown();
+            });
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (ToDoModel task : result.get()) {
+            assertEquals(1, task.getStatus());
+        }
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        assertEquals(1, changes.size());
+        assertEquals(taskCount, changes.get(0).ids.length);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.todolistdemo;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.widget.TextView;
+
+import com.example.todolistdemo.Model.ToDoModel;
+import com.example.todolistdemo.Utils.DatabaseHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Only packaged in the benchmark build type. Replaces the task table with
+ * {@link #EXTRA_TASK_COUNT} generated rows so the benchmark module can measure large lists:
+ * adb shell am start -W -n com.example.todolistdemo/.SeedTasksActivity --ei task_count 10000
+ * The rows are written on a background thread in one transaction, as one change, and the
+ * activity finishes once they are committed.
+ */
+public class SeedTasksActivity extends Activity {
+    public static final String EXTRA_TASK_COUNT = "task_count";
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        TextView status = new TextView(this);
+        status.setText("Seeding tasks");
+        setContentView(status);
+        int count = getIntent().getIntExtra(EXTRA_TASK_COUNT, 10_000);
+
+        DatabaseHelper myDb = DatabaseHelper.getInstance(this);
+        new Thread(() -> {
+            myDb.getWritableDatabase().execSQL("DELETE FROM TODO_TABLE");
+            List<ToDoModel> tasks = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                ToDoModel task = new ToDoModel();
+                task.setTask("Task " + i);
+                tasks.add(task);
+            }
+            myDb.insertTasks(tasks);
+            runOnUiThread(this::finish);
+        }, "SeedTasks").start();
+    }
+}
@@ -1,53 +1,166 @@
 package com.example.todolistdemo.Adapter;
 
 import android.content.Context;
+import android.content.res.ColorStateList;
 import android.os.Bundle;
+import android.text.format.DateUtils;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
+import android.util.SparseBooleanArray;
 import android.widget.CheckBox;
+import android.widget.ImageView;
+import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.cardview.widget.CardView;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ItemTouchHelper;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.todolistdemo.AddNewTask;
 import com.example.todolistdemo.MainActivity;
 import com.example.todolistdemo.Model.ToDoModel;
 import com.example.todolistdemo.R;
-import com.example.todolistdemo.Utils.DatabaseHelper;
+import com.example.todolistdemo.Utils.TaskRepository;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 
-public class ToDoAdapter extends RecyclerView.Adapter<ToDoAdapter.MyViewHolder> {
-    private List<ToDoModel> mList;
+public class ToDoAdapter extends ListAdapter<ToDoModel, ToDoAdapter.MyViewHolder> {
+    private static final DiffUtil.ItemCallback<ToDoModel> DIFF_CALLBACK = new DiffUtil.ItemCallback<ToDoModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ToDoModel oldItem, @NonNull ToDoModel newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ToDoModel oldItem, @NonNull ToDoModel newItem) {
+            return oldItem.getStatus() == newItem.getStatus()
+                    && oldItem.getDueDate() == newItem.getDueDate()
+                    && oldItem.getPriority() == newItem.getPriority()
+                    && Objects.equals(oldItem.getTask(), newItem.getTask());
+        }
+    };
+
     private MainActivity activity;
-    private DatabaseHelper myDb;
-    public ToDoAdapter(DatabaseHelper myDb, MainActivity activity){
+    private TaskRepository repository;
+    // Read once; getStringArray() builds a new array on every call.
+    private final String[] priorities;
+    private int editingPosition = RecyclerView.NO_POSITION;
+    private List<ToDoModel> latestList = Collections.emptyList();
+    private static final Object PAYLOAD_SELECTION = new Object();
+    private static final Object PAYLOAD_STATUS = new Object();
+    private final SparseBooleanArray selectedIds = new SparseBooleanArray();
+    private boolean selecting;
+    private boolean reorderable = true;
+    @Nullable
+    private ItemTouchHelper itemTouchHelper;
+    public ToDoAdapter(TaskRepository repository, MainActivity activity){
+        super(DIFF_CALLBACK);
         this.activity = activity;
-        this.myDb = myDb;
+        this.repository = repository;
+        this.priorities = activity.getResources().getStringArray(R.array.priorities);
+        setHasStableIds(true);
     }
 
     @NonNull
     @Override
     public MyViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.task,parent,false);
-        return new MyViewHolder(v);
+        MyViewHolder holder = new MyViewHolder(v);
+        holder.mCheckBox.setOnLongClickListener(view -> {
+            toggleSelection(holder.getBindingAdapterPosition());
+            return true;
+        });
+        // In selection mode the checkbox stops taking touches, so taps land on the card.
+        holder.itemView.setOnClickListener(view -> {
+            if (selecting) {
+                toggleSelection(holder.getBindingAdapterPosition());
+            }
+        });
+        // Set once per holder rather than on every bind. Rebinding a recycled row calls
+        // setChecked() with the row's own status, which the equality check turns into a no-op.
+        holder.mCheckBox.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                setStatus(position, isChecked ? 1 : 0);
+            }
+        });
+        holder.mDragHandle.setOnTouchListener((view, event) -> {
+            if (event.getActionMasked() == MotionEvent.ACTION_DOWN && itemTouchHelper != null && !selecting && reorderable) {
+                itemTouchHelper.startDrag(holder);
+            }
+            return false;
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull MyViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_SELECTION) || payloads.contains(PAYLOAD_STATUS)) {
+            if (payloads.contains(PAYLOAD_STATUS)) {
+                holder.mCheckBox.setChecked(toBoolean(getItem(position).getStatus()));
+                bindDetails(holder, getItem(position));
+            }
+            if (payloads.contains(PAYLOAD_SELECTION)) {
+                bindSelection(holder, getItem(position));
+            }
+        } else {
+            super.onBindViewHolder(holder, position, payloads);
+        }
     }
 
     @Override
     public void onBindViewHolder(@NonNull ToDoAdapter.MyViewHolder holder, int position) {
-        final ToDoModel item = mList.get(position);
+        final ToDoModel item = getItem(position);
         holder.mCheckBox.setText(item.getTask());
         holder.mCheckBox.setChecked(toBoolean(item.getStatus()));
-        holder.mCheckBox.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            if(isChecked){
-                myDb.updateStatus(item.getId(),1);
-            }else{
-                myDb.updateStatus(item.getId(),0);
-            }
-        });
-
+        bindDetails(holder, item);
+        bindSelection(holder, item);
+    }
+    private void bindDetails(MyViewHolder holder, ToDoModel item) {
+        String priority = item.getPriority() > 0
+                ? priorities[item.getPriority()] : null;
+        String due = item.getDueDate() != 0
+                ? activity.getString(R.string.due_on, DateUtils.formatDateTime(activity, item.getDueDate(),
+                        DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_TIME | DateUtils.FORMAT_ABBREV_MONTH))
+                : null;
+        if (priority == null && due == null) {
+            holder.mDueDate.setVisibility(View.GONE);
+            return;
+        }
+        holder.mDueDate.setVisibility(View.VISIBLE);
+        holder.mDueDate.setText(priority == null ? due : due == null ? priority
+                : activity.getString(R.string.task_details, priority, due));
+        boolean overdue = item.getDueDate() != 0 && item.getStatus() == 0
+                && item.getDueDate() < System.currentTimeMillis();
+        if (overdue) {
+            holder.mDueDate.setTextColor(ContextCompat.getColor(activity, R.color.colorOverdue));
+        } else {
+            holder.mDueDate.setTextColor(holder.defaultDueDateColor);
+        }
+    }
+    private void bindSelection(MyViewHolder holder, ToDoModel item) {
+        holder.mCheckBox.setClickable(!selecting);
+        holder.mCheckBox.setLongClickable(!selecting);
+        CardView card = (CardView) holder.itemView;
+        if (selectedIds.get(item.getId())) {
+            card.setCardBackgroundColor(ContextCompat.getColor(activity, R.color.colorSelected));
+        } else {
+            card.setCardBackgroundColor(holder.defaultBackground);
+        }
+    }
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
     private boolean toBoolean(int n){
         return n!=0;
@@ -55,34 +168,236 @@ public class ToDoAdapter extends RecyclerView.Adapter<ToDoAdapter.MyViewHolder>
     public Context getContext(){
         return activity;
     }
+    /** The rows as last submitted. The list itself is never changed in place, so it can be kept. */
+    public List<ToDoModel> getTasks(){
+        return latestList;
+    }
     public void setTasks(List<ToDoModel> mList){
-        this.mList = mList;
-        notifyDataSetChanged();
+        submit(mList, null);
     }
+    public void appendTasks(List<ToDoModel> page) {
+        SparseBooleanArray loaded = new SparseBooleanArray(latestList.size());
+        for (ToDoModel item : latestList) {
+            loaded.put(item.getId(), true);
+        }
+        List<ToDoModel> list = new ArrayList<>(latestList.size() + page.size());
+        list.addAll(latestList);
+        for (ToDoModel item : page) {
+            // A task moved while paging can show up in a later page again.
+            if (!loaded.get(item.getId())) {
+                list.add(item);
+            }
+        }
+        submit(list, null);
+    }
+    /**
+     * Applies rows that changed in the database. Loaded rows are replaced and moved to where
+     * they now sort; the diff turns that into granular change and move notifications. Rows
+     * that are not loaded are added only when {@code addMissing} is set and they sort before
+     * {@code loadedUpTo}, so the pager still loads everything after it exactly once. A null
+     * {@code loadedUpTo} means the whole list is loaded.
+     */
+    public void applyChangedTasks(List<ToDoModel> rows, boolean addMissing, @Nullable ToDoModel loadedUpTo) {
+        List<ToDoModel> list = new ArrayList<>(latestList);
+        for (ToDoModel row : rows) {
+            int index = indexOf(list, row.getId());
+            if (index != -1 && !addMissing) {
+                // Filtered lists such as search results or upcoming tasks keep their own order.
+                list.set(index, row);
+                continue;
+            }
+            if (index != -1) {
+                list.remove(index);
+            } else if (!addMissing || (loadedUpTo != null && !comesBefore(row, loadedUpTo))) {
+                continue;
+            }
+            index = 0;
+            while (index < list.size() && comesBefore(list.get(index), row)) {
+                index++;
+            }
+            list.add(index, row);
+        }
+        submit(list, null);
+    }
+    /** Removes the task from the list right away; the row stays restorable until it is purged. */
     public void deleteTask(int position) {
-        ToDoModel item = mList.get(position);
-        myDb.deleteTask(item.getId());
-        mList.remove(position);
-        notifyItemRemoved(position);
+        ToDoModel item = getItem(position);
+        repository.deleteTask(item.getId());
+        int index = indexOf(latestList, item.getId());
+        // A pending submit or a DELETED change may already have taken the row out.
+        if (index != -1) {
+            List<ToDoModel> list = new ArrayList<>(latestList);
+            list.remove(index);
+            submit(list, null);
+        }
+        activity.showUndoDelete(Collections.singletonList(item));
+    }
+    // Mirrors the POSITION DESC, ID DESC order the list is loaded in.
+    private static boolean comesBefore(ToDoModel a, ToDoModel b) {
+        if (a.getPosition() != b.getPosition()) {
+            return a.getPosition() > b.getPosition();
+        }
+        return a.getId() > b.getId();
+    }
+    /**
+     * A tap only flips the status, so the bound row is updated in place and rebound with a
+     * payload instead of copying the list and diffing it.
+     */
+    private void setStatus(int position, int status) {
+        ToDoModel item = getItem(position);
+        if (item.getStatus() == status) {
+            return;
+        }
+        item.setStatus(status);
+        // While a diff is pending the submitted list can hold a newer copy of the row.
+        int index = indexOf(latestList, item.getId());
+        if (index != -1) {
+            latestList.get(index).setStatus(status);
+        }
+        notifyItemChanged(position, PAYLOAD_STATUS);
+        repository.updateStatusLater(item.getId(), status);
+    }
+    private static int indexOf(List<ToDoModel> list, int id) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).getId() == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    /**
+     * Diffs run in the background, so getCurrentList() can lag behind what was submitted.
+     * Every change is applied to the latest submitted list so none of them get lost.
+     */
+    private void submit(List<ToDoModel> list, @Nullable Runnable commitCallback) {
+        latestList = list;
+        submitList(list, commitCallback);
+    }
+    public boolean isSelecting() {
+        return selecting;
+    }
+    private void toggleSelection(int position) {
+        if (position == RecyclerView.NO_POSITION) {
+            return;
+        }
+        int id = getItem(position).getId();
+        if (selectedIds.get(id)) {
+            selectedIds.delete(id);
+        } else {
+            selectedIds.put(id, true);
+        }
+        if (!selecting) {
+            selecting = true;
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        } else {
+            notifyItemChanged(position, PAYLOAD_SELECTION);
+        }
+        activity.onSelectionChanged(selectedIds.size());
+    }
+    public int[] getSelectedIds() {
+        int[] ids = new int[selectedIds.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = selectedIds.keyAt(i);
+        }
+        return ids;
+    }
+    public void clearSelection() {
+        if (selecting) {
+            selecting = false;
+            selectedIds.clear();
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        }
+    }
+    /** Removes the given tasks and returns the ones that were in the list. */
+    public List<ToDoModel> removeTasks(int[] ids) {
+        SparseBooleanArray removed = toSet(ids);
+        List<ToDoModel> list = new ArrayList<>(latestList.size());
+        List<ToDoModel> removedTasks = new ArrayList<>(ids.length);
+        for (ToDoModel item : latestList) {
+            if (removed.get(item.getId())) {
+                removedTasks.add(item);
+            } else {
+                list.add(item);
+            }
+        }
+        submit(list, null);
+        return removedTasks;
+    }
+    private static SparseBooleanArray toSet(int[] ids) {
+        SparseBooleanArray set = new SparseBooleanArray(ids.length);
+        for (int id : ids) {
+            set.put(id, true);
+        }
+        return set;
+    }
+    /** Drag-to-reorder only makes sense while the list is shown in its own order. */
+    public void setReorderable(boolean reorderable) {
+        this.reorderable = reorderable;
+    }
+    public void setItemTouchHelper(@Nullable ItemTouchHelper itemTouchHelper) {
+        this.itemTouchHelper = itemTouchHelper;
+    }
+    /**
+     * Moves a row onto the slot of another while it is being dragged. Rows are found by id
+     * because adapter positions lag while earlier moves are still being diffed. Nothing is
+     * written until the drag ends.
+     */
+    public void moveItem(int id, int targetId) {
+        List<ToDoModel> list = new ArrayList<>(latestList);
+        int from = indexOf(list, id);
+        int to = indexOf(list, targetId);
+        if (from == -1 || to == -1 || from == to) {
+            return;
+        }
+        list.add(to, list.remove(from));
+        submit(list, null);
+    }
+    /**
+     * Saves where a dragged task was dropped, as "right below the row now above it".
+     * DatabaseHelper picks the key from the rows on disk, so rows not paged in yet and
+     * keys that have run out of room between them are handled there; the row comes back
+     * with its new key through the change stream.
+     */
+    public void persistMove(int id) {
+        int index = indexOf(latestList, id);
+        if (index == -1) {
+            return;
+        }
+        repository.moveTask(id, index > 0 ? latestList.get(index - 1).getId() : -1);
     }
     public void editItem(int position){
-        ToDoModel item = mList.get(position);
+        ToDoModel item = getItem(position);
+        editingPosition = position;
         Bundle bundle = new Bundle();
         bundle.putInt("id",item.getId());
         bundle.putString("task",item.getTask());
+        bundle.putInt("status",item.getStatus());
+        bundle.putLong("due_date",item.getDueDate());
+        bundle.putInt("priority",item.getPriority());
         AddNewTask fragment = new AddNewTask();
         fragment.setArguments(bundle);
         fragment.show(activity.getSupportFragmentManager(),fragment.getTag());
     }
-    @Override
-    public int getItemCount() {
-        return mList.size();
+    /** Puts back a row that was swiped away to open the editor but never saved. */
+    public void restoreEditedItem() {
+        if (editingPosition != RecyclerView.NO_POSITION) {
+            notifyItemChanged(editingPosition);
+            editingPosition = RecyclerView.NO_POSITION;
+        }
     }
     public static class MyViewHolder extends RecyclerView.ViewHolder{
         CheckBox mCheckBox;
+        ImageView mDragHandle;
+        TextView mDueDate;
+        final ColorStateList defaultBackground;
+        final ColorStateList defaultDueDateColor;
         public MyViewHolder(@NonNull View itemView) {
             super(itemView);
             mCheckBox = itemView.findViewById(R.id.mcheckbox);
+            mDragHandle = itemView.findViewById(R.id.dragHandle);
+            mDueDate = itemView.findViewById(R.id.dueDate);
+            defaultDueDateColor = mDueDate.getTextColors();
+            defaultBackground = ((CardView) itemView).getCardBackgroundColor();
         }
     }
 }
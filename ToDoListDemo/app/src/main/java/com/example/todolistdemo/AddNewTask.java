@@ -1,32 +1,56 @@
 package com.example.todolistdemo;
 
+import android.Manifest;
 import android.app.Activity;
+import android.app.DatePickerDialog;
+import android.app.TimePickerDialog;
 import android.content.DialogInterface;
+import android.content.pm.PackageManager;
 import android.graphics.Color;
+import android.os.Build;
 import android.os.Bundle;
+import android.text.format.DateFormat;
+import android.text.format.DateUtils;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.AdapterView;
 import android.widget.Button;
 import android.widget.EditText;
+import android.widget.Spinner;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
 
 import com.example.todolistdemo.Model.ToDoModel;
-import com.example.todolistdemo.Utils.DatabaseHelper;
+import com.example.todolistdemo.Utils.TaskRepository;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 
+import java.util.Calendar;
+
 public class AddNewTask extends BottomSheetDialogFragment {
     public static final String TAG = "Add New Task";
     private EditText mEditText;
     private Button mSaveButton;
-    private DatabaseHelper myDb;
+    private TaskRepository repository;
+    private Button mDueDateButton;
+    private Spinner mPrioritySpinner;
+    private long dueDate;
+    // Reminders are posted as notifications, which need permission from Android 13 on.
+    private final ActivityResultLauncher<String> notificationPermission =
+            registerForActivityResult(new ActivityResultContracts.RequestPermission(), granted -> { });
 
-    public static AddNewTask newInstance() {
-        return new AddNewTask();
+    public static AddNewTask newInstance(int listId) {
+        AddNewTask fragment = new AddNewTask();
+        Bundle bundle = new Bundle();
+        bundle.putInt("list_id", listId);
+        fragment.setArguments(bundle);
+        return fragment;
     }
 
     @Nullable
@@ -40,18 +64,38 @@ public class AddNewTask extends BottomSheetDialogFragment {
         super.onViewCreated(view, savedInstanceState);
         mEditText = view.findViewById(R.id.editText);
         mSaveButton = view.findViewById(R.id.buttonSave);
+        mDueDateButton = view.findViewById(R.id.buttonDueDate);
+        mPrioritySpinner = view.findViewById(R.id.prioritySpinner);
+        mDueDateButton.setOnClickListener(view1 -> pickDueDate());
 
-        myDb = new DatabaseHelper(getActivity());
+        repository = TaskRepository.getInstance(requireContext());
         boolean isUpdate = false;
         Bundle bundle = getArguments();
-        if (bundle != null) {
+        if (bundle != null && bundle.containsKey("id")) {
             isUpdate = true;
             String task = bundle.getString("task");
             mEditText.setText(task);
+            dueDate = bundle.getLong("due_date");
+            mPrioritySpinner.setSelection(bundle.getInt("priority"));
             if (task.length() > 0) {
                 mSaveButton.setEnabled(false);
             }
         }
+        showDueDate();
+        int initialPriority = mPrioritySpinner.getSelectedItemPosition();
+        mPrioritySpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> adapterView, View view, int position, long id) {
+                if (position != initialPriority) {
+                    mSaveButton.setEnabled(true);
+                }
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> adapterView) {
+
+            }
+        });
         mEditText.addTextChangedListener(new TextWatcher() {
             @Override
             public void beforeTextChanged(CharSequence charSequence, int i, int i1, int i2) {
@@ -77,17 +121,66 @@ public class AddNewTask extends BottomSheetDialogFragment {
         boolean finalIsUpdate = isUpdate;
         mSaveButton.setOnClickListener(view1 -> {
             String text = mEditText.getText().toString();
+            // The list picks the change up from the repository's change stream.
+            int priority = mPrioritySpinner.getSelectedItemPosition();
             if (finalIsUpdate) {
-                myDb.updateTask(bundle.getInt("id"), text);
+                repository.updateTask(bundle.getInt("id"), text, dueDate, priority);
             } else {
                 ToDoModel task = new ToDoModel();
                 task.setTask(text);
                 task.setStatus(0);
-                myDb.insertTask(task);
+                task.setDueDate(dueDate);
+                task.setPriority(priority);
+                task.setListId(bundle.getInt("list_id"));
+                repository.insertTask(task);
             }
             dismiss();
         });
     }
+    private void pickDueDate() {
+        Calendar calendar = Calendar.getInstance();
+        if (dueDate != 0) {
+            calendar.setTimeInMillis(dueDate);
+        }
+        DatePickerDialog datePicker = new DatePickerDialog(requireContext(), (picker, year, month, day) -> {
+            calendar.set(year, month, day);
+            new TimePickerDialog(requireContext(), (timePicker, hour, minute) -> {
+                calendar.set(Calendar.HOUR_OF_DAY, hour);
+                calendar.set(Calendar.MINUTE, minute);
+                calendar.set(Calendar.SECOND, 0);
+                calendar.set(Calendar.MILLISECOND, 0);
+                setDueDate(calendar.getTimeInMillis());
+                requestNotificationPermission();
+            }, calendar.get(Calendar.HOUR_OF_DAY), calendar.get(Calendar.MINUTE),
+                    DateFormat.is24HourFormat(requireContext())).show();
+        }, calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH));
+        datePicker.setButton(DialogInterface.BUTTON_NEUTRAL, getString(R.string.no_due_date), (dialog, which) -> setDueDate(0));
+        datePicker.show();
+    }
+
+    private void setDueDate(long dueDate) {
+        this.dueDate = dueDate;
+        mSaveButton.setEnabled(true);
+        showDueDate();
+    }
+
+    private void showDueDate() {
+        if (dueDate == 0) {
+            mDueDateButton.setText(R.string.set_due_date);
+        } else {
+            mDueDateButton.setText(getString(R.string.due_on, DateUtils.formatDateTime(requireContext(), dueDate,
+                    DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_TIME | DateUtils.FORMAT_ABBREV_MONTH)));
+        }
+    }
+
+    private void requestNotificationPermission() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(requireContext(), Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            notificationPermission.launch(Manifest.permission.POST_NOTIFICATIONS);
+        }
+    }
+
     @Override
     public void onDismiss(@NonNull DialogInterface dialog) {
         super.onDismiss(dialog);
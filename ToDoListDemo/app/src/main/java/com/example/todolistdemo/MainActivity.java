@@ -1,65 +1,393 @@
 package com.example.todolistdemo;
 
+import android.content.Context;
 import android.content.DialogInterface;
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.ParcelFileDescriptor;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.view.SubMenu;
+import android.widget.EditText;
+import android.widget.PopupMenu;
+import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.view.ActionMode;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.splashscreen.SplashScreen;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.todolistdemo.Adapter.ToDoAdapter;
+import com.example.todolistdemo.Model.ListModel;
 import com.example.todolistdemo.Model.ToDoModel;
-import com.example.todolistdemo.Utils.DatabaseHelper;
+import com.example.todolistdemo.Utils.TaskPager;
+import com.example.todolistdemo.Utils.TaskRepository;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.google.android.material.snackbar.Snackbar;
 
+import java.io.FileNotFoundException;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class MainActivity extends AppCompatActivity implements onDialogCloseListener {
 
+    private static final String PREFS_NAME = "main";
+    private static final String KEY_LIST_ID = "list_id";
+
     private RecyclerView mRecyclerView;
     private FloatingActionButton fab;
-    private DatabaseHelper myDb;
+    private TextView mTitle;
+    private List<ListModel> lists = new ArrayList<>();
+    private TaskRepository repository;
     private ToDoAdapter adapter;
-    private List<ToDoModel> mList;
+    private TaskPager pager;
+    @Nullable
+    private ActionMode selectionMode;
+    private static final long SEARCH_DEBOUNCE_MS = 300;
+    private static final int SEARCH_LIMIT = 200;
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable searchRunnable = this::runSearch;
+    private EditText mSearchText;
+    private boolean searching;
+    private boolean showingUpcoming;
+    // Bumped whenever the list switches source, so results from an older source are dropped.
+    private int listGeneration;
+    private static final long UPCOMING_WINDOW_MS = TimeUnit.DAYS.toMillis(7);
+    private boolean firstPageShown;
+    private static final String BACKUP_FILE_NAME = "tasks.todo";
+    private final ActivityResultLauncher<String> exportLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("application/octet-stream"), this::exportTasks);
+    private final ActivityResultLauncher<String[]> importLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::importTasks);
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        SplashScreen splashScreen = SplashScreen.installSplashScreen(this);
         super.onCreate(savedInstanceState);
+        // The splash stays up only until the first page of tasks is on screen.
+        splashScreen.setKeepOnScreenCondition(() -> !firstPageShown);
         EdgeToEdge.enable(this);
         setContentView(R.layout.activity_main);
 
         mRecyclerView = findViewById(R.id.recyclerView);
         fab = findViewById(R.id.fab);
-        myDb = new DatabaseHelper(this);
-        mList = new ArrayList<>();
-        adapter = new ToDoAdapter(myDb,this);
+        mTitle = findViewById(R.id.textView);
+        repository = TaskRepository.getInstance(this);
+        adapter = new ToDoAdapter(repository,this);
 
         mRecyclerView.setLayoutManager(new LinearLayoutManager(this));
 
         mRecyclerView.setHasFixedSize(true);
         mRecyclerView.setAdapter(adapter);
-        mList = myDb.getAllTasks();
-        Collections.reverse(mList);
-        adapter.setTasks(mList);
+        pager = new TaskPager(repository, adapter, getSavedListId(this));
+        mRecyclerView.addOnScrollListener(pager);
+        repository.addChangeListener(pager);
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                // Keep a new task at the top in view instead of inserting it above the viewport.
+                LinearLayoutManager layoutManager = (LinearLayoutManager) mRecyclerView.getLayoutManager();
+                if (positionStart == 0 && layoutManager != null
+                        && layoutManager.findFirstCompletelyVisibleItemPosition() == 0) {
+                    mRecyclerView.scrollToPosition(0);
+                }
+            }
+        });
+        pager.setFirstPageListener(() -> {
+            firstPageShown = true;
+            reportFullyDrawn();
+        });
+        pager.loadNextPage();
+        repository.getLists(result -> {
+            lists = result;
+            showListName();
+        });
+
+        mSearchText = findViewById(R.id.searchText);
+        mSearchText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence charSequence, int i, int i1, int i2) {
+
+            }
 
+            @Override
+            public void onTextChanged(CharSequence charSequence, int i, int i1, int i2) {
+
+            }
+
+            @Override
+            public void afterTextChanged(Editable editable) {
+                searchHandler.removeCallbacks(searchRunnable);
+                searchHandler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
+            }
+        });
+
+
+        findViewById(R.id.moreButton).setOnClickListener(view -> {
+            PopupMenu popup = new PopupMenu(this, view);
+            popup.inflate(R.menu.main_options);
+            popup.getMenu().findItem(R.id.action_upcoming).setChecked(showingUpcoming);
+            SubMenu listsMenu = popup.getMenu().findItem(R.id.action_lists).getSubMenu();
+            for (ListModel list : lists) {
+                listsMenu.add(R.id.group_lists, list.getId(), Menu.NONE, list.getName())
+                        .setChecked(list.getId() == pager.getListId());
+            }
+            listsMenu.setGroupCheckable(R.id.group_lists, true, true);
+            popup.setOnMenuItemClickListener(item -> {
+                if (item.getGroupId() == R.id.group_lists) {
+                    switchList(item.getItemId());
+                } else if (item.getItemId() == R.id.action_new_list) {
+                    showNewListDialog();
+                } else if (item.getItemId() == R.id.action_upcoming) {
+                    showingUpcoming = !showingUpcoming;
+                    if (!searching) {
+                        showList(++listGeneration);
+                    }
+                } else if (item.getItemId() == R.id.action_export) {
+                    exportLauncher.launch(BACKUP_FILE_NAME);
+                } else if (item.getItemId() == R.id.action_import) {
+                    importLauncher.launch(new String[]{"*/*"});
+                } else {
+                    return false;
+                }
+                return true;
+            });
+            popup.show();
+        });
 
         fab.setOnClickListener(view -> {
-            AddNewTask.newInstance().show(getSupportFragmentManager(),AddNewTask.TAG);
+            AddNewTask.newInstance(pager.getListId()).show(getSupportFragmentManager(),AddNewTask.TAG);
         });
         ItemTouchHelper itemTouchHelper = new ItemTouchHelper(new RecyclerViewTouchHelper(adapter));
         itemTouchHelper.attachToRecyclerView(mRecyclerView);
+        adapter.setItemTouchHelper(itemTouchHelper);
+    }
+
+    /** The list shown when the app was last used, which is also the one prefetched at startup. */
+    static int getSavedListId(@NonNull Context context) {
+        return context.getSharedPreferences(PREFS_NAME, MODE_PRIVATE).getInt(KEY_LIST_ID, ListModel.DEFAULT_LIST_ID);
+    }
+
+    /** Leaves search and the upcoming view, if either is showing, and shows the list's own tasks. */
+    private void switchList(int listId) {
+        getSharedPreferences(PREFS_NAME, MODE_PRIVATE).edit().putInt(KEY_LIST_ID, listId).apply();
+        mSearchText.getText().clear();
+        searchHandler.removeCallbacks(searchRunnable);
+        searching = false;
+        showingUpcoming = false;
+        listGeneration++;
+        adapter.setReorderable(true);
+        pager.showList(listId);
+        showListName();
+    }
+
+    private void showListName() {
+        for (ListModel list : lists) {
+            if (list.getId() == pager.getListId()) {
+                mTitle.setText(list.getName());
+                return;
+            }
+        }
+    }
+
+    private void showNewListDialog() {
+        EditText nameText = new EditText(this);
+        nameText.setHint(R.string.list_name);
+        nameText.setSingleLine();
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.new_list)
+                .setView(nameText)
+                .setPositiveButton(R.string.create, (dialog, which) -> {
+                    String name = nameText.getText().toString().trim();
+                    if (name.isEmpty()) {
+                        return;
+                    }
+                    repository.insertList(name, listId -> {
+                        ListModel list = new ListModel();
+                        list.setId(listId);
+                        list.setName(name);
+                        lists.add(list);
+                        switchList(listId);
+                    });
+                })
+                .setNegativeButton(android.R.string.cancel, null)
+                .show();
+    }
+
+    private void exportTasks(@Nullable Uri uri) {
+        if (uri == null) {
+            return;
+        }
+        try {
+            ParcelFileDescriptor pfd = getContentResolver().openFileDescriptor(uri, "wt");
+            if (pfd == null) {
+                throw new FileNotFoundException(uri.toString());
+            }
+            repository.exportTasks(pager.getListId(), new ParcelFileDescriptor.AutoCloseOutputStream(pfd).getChannel(),
+                    count -> showBackupResult(R.plurals.tasks_exported, count));
+        } catch (FileNotFoundException e) {
+            showBackupResult(R.plurals.tasks_exported, -1);
+        }
+    }
+
+    private void importTasks(@Nullable Uri uri) {
+        if (uri == null) {
+            return;
+        }
+        try {
+            ParcelFileDescriptor pfd = getContentResolver().openFileDescriptor(uri, "r");
+            if (pfd == null) {
+                throw new FileNotFoundException(uri.toString());
+            }
+            repository.importTasks(pager.getListId(), new ParcelFileDescriptor.AutoCloseInputStream(pfd).getChannel(),
+                    count -> showBackupResult(R.plurals.tasks_imported, count));
+        } catch (FileNotFoundException e) {
+            showBackupResult(R.plurals.tasks_imported, -1);
+        }
+    }
+
+    private void showBackupResult(int pluralsId, int count) {
+        String message = count < 0
+                ? getString(R.string.backup_failed)
+                : getResources().getQuantityString(pluralsId, count, count);
+        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+    }
+
+    private void runSearch() {
+        String query = mSearchText.getText().toString().trim();
+        int generation = ++listGeneration;
+        if (query.isEmpty()) {
+            if (searching) {
+                searching = false;
+                showList(generation);
+            }
+            return;
+        }
+        if (!searching) {
+            searching = true;
+            pager.stop();
+        }
+        repository.searchTasks(query, SEARCH_LIMIT, results -> {
+            // Only the latest query's results are shown, even if an older one finishes later.
+            if (generation == listGeneration) {
+                adapter.setTasks(results);
+            }
+        });
+    }
+
+    /** Shows the list used while nothing is searched: every task, or only upcoming and overdue ones. */
+    private void showList(int generation) {
+        adapter.setReorderable(!showingUpcoming);
+        if (!showingUpcoming) {
+            pager.restart();
+            return;
+        }
+        pager.stop();
+        // Everything due before the end of the window, overdue tasks first.
+        repository.getUpcomingTasks(System.currentTimeMillis() + UPCOMING_WINDOW_MS, SEARCH_LIMIT, tasks -> {
+            if (generation == listGeneration) {
+                adapter.setTasks(tasks);
+            }
+        });
     }
 
     @Override
-    public void onDialogClose(DialogInterface dialogInterface) {
-        mList = myDb.getAllTasks();
-        Collections.reverse(mList);
-        adapter.setTasks(mList);
-        adapter.notifyDataSetChanged();
+    protected void onStop() {
+        // Don't leave toggles buffered while the process may be killed in the background.
+        repository.flushStatuses();
+        super.onStop();
+    }
 
+    @Override
+    protected void onDestroy() {
+        searchHandler.removeCallbacks(searchRunnable);
+        repository.removeChangeListener(pager);
+        super.onDestroy();
+    }
+
+    /** Called by the adapter whenever tasks are long-pressed or tapped in selection mode. */
+    public void onSelectionChanged(int count) {
+        if (count == 0) {
+            if (selectionMode != null) {
+                selectionMode.finish();
+            }
+            return;
+        }
+        if (selectionMode == null) {
+            selectionMode = startSupportActionMode(selectionCallback);
+        }
+        if (selectionMode != null) {
+            selectionMode.setTitle(getString(R.string.selected_count, count));
+        }
+    }
+
+    private final ActionMode.Callback selectionCallback = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            mode.getMenuInflater().inflate(R.menu.task_selection, menu);
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            int[] ids = adapter.getSelectedIds();
+            int itemId = item.getItemId();
+            if (itemId == R.id.action_complete) {
+                repository.updateStatuses(ids, 1);
+            } else if (itemId == R.id.action_delete) {
+                repository.deleteTasks(ids);
+                showUndoDelete(adapter.removeTasks(ids));
+            } else if (itemId == R.id.action_clear_completed) {
+                repository.clearCompleted(pager.getListId(), null);
+            } else {
+                return false;
+            }
+            mode.finish();
+            return true;
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            selectionMode = null;
+            adapter.clearSelection();
+        }
+    };
+
+    /** Offers to bring back tasks that were just deleted, before the purge job gets to them. */
+    public void showUndoDelete(List<ToDoModel> deleted) {
+        if (deleted.isEmpty()) {
+            return;
+        }
+        int[] ids = new int[deleted.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = deleted.get(i).getId();
+        }
+        Snackbar.make(mRecyclerView, getResources().getQuantityString(R.plurals.tasks_deleted, ids.length, ids.length), Snackbar.LENGTH_LONG)
+                .setAnchorView(fab)
+                .setAction(R.string.undo, view -> repository.restoreTasks(ids))
+                .show();
+    }
+
+    @Override
+    public void onDialogClose(DialogInterface dialogInterface) {
+        adapter.restoreEditedItem();
     }
 }
\ No newline at end of file
@@ -1,10 +1,10 @@
 package com.example.todolistdemo;
 
-import android.app.AlertDialog;
 import android.graphics.Canvas;
 import android.graphics.Color;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.RecyclerView;
@@ -15,29 +15,57 @@ import it.xabaras.android.recyclerview.swipedecorator.RecyclerViewSwipeDecorator
 
 public class RecyclerViewTouchHelper extends ItemTouchHelper.SimpleCallback {
     private ToDoAdapter adapter;
+    private boolean dragging;
 
 
     public RecyclerViewTouchHelper(ToDoAdapter adapter) {
-        super(0, ItemTouchHelper.LEFT | ItemTouchHelper.RIGHT);
+        super(ItemTouchHelper.UP | ItemTouchHelper.DOWN, ItemTouchHelper.LEFT | ItemTouchHelper.RIGHT);
         this.adapter = adapter;
     }
 
+    // Long press selects tasks, so drags start from the handle instead.
     @Override
-    public boolean onMove(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder, @NonNull RecyclerView.ViewHolder target) {
+    public boolean isLongPressDragEnabled() {
         return false;
     }
 
+    @Override
+    public boolean onMove(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder, @NonNull RecyclerView.ViewHolder target) {
+        adapter.moveItem((int) viewHolder.getItemId(), (int) target.getItemId());
+        return true;
+    }
+
+    @Override
+    public void onSelectedChanged(@Nullable RecyclerView.ViewHolder viewHolder, int actionState) {
+        super.onSelectedChanged(viewHolder, actionState);
+        if (actionState == ItemTouchHelper.ACTION_STATE_DRAG) {
+            dragging = true;
+        }
+    }
+
+    @Override
+    public void clearView(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder) {
+        super.clearView(recyclerView, viewHolder);
+        if (dragging) {
+            dragging = false;
+            adapter.persistMove((int) viewHolder.getItemId());
+        }
+    }
+
+    @Override
+    public int getSwipeDirs(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder) {
+        return adapter.isSelecting() ? 0 : super.getSwipeDirs(recyclerView, viewHolder);
+    }
+
     @Override
     public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
-        final int position = viewHolder.getAdapterPosition();
+        final int position = viewHolder.getBindingAdapterPosition();
+        if (position == RecyclerView.NO_POSITION) {
+            return;
+        }
+        // Deletes can be undone from the snackbar, so there is nothing to confirm up front.
         if (direction == ItemTouchHelper.LEFT) {
-            AlertDialog.Builder builder = new AlertDialog.Builder(adapter.getContext());
-            builder.setTitle("Delete Task");
-            builder.setMessage("Are you sure?");
-            builder.setPositiveButton("Yes", (dialog, which) -> adapter.deleteTask(position));
-            builder.setNegativeButton(android.R.string.cancel, (dialog, which) -> adapter.notifyItemChanged(position));
-            AlertDialog dialog = builder.create();
-            dialog.show();
+            adapter.deleteTask(position);
         } else {
             adapter.editItem(position);
         }
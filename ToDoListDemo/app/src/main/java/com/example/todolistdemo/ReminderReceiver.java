@@ -0,0 +1,127 @@
+package com.example.todolistdemo;
+
+import android.Manifest;
+import android.app.AlarmManager;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+
+import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+
+import com.example.todolistdemo.Model.ToDoModel;
+import com.example.todolistdemo.Utils.TaskRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reminds about due tasks with a single alarm. Time is cut into fixed windows; the alarm is
+ * set for the window holding the next due date, and when it fires one notification lists
+ * every task due in that window before the alarm moves on to the next one. However many
+ * tasks there are, at most one alarm is pending. The end of the last window announced is
+ * saved, so rescheduling after an edit never arms a window that has already fired.
+ */
+public class ReminderReceiver extends BroadcastReceiver {
+    private static final long WINDOW_MS = TimeUnit.MINUTES.toMillis(15);
+    private static final String EXTRA_WINDOW_START = "window_start";
+    private static final String CHANNEL_ID = "reminders";
+    private static final int NOTIFICATION_ID = 1;
+    private static final int MAX_LINES = 5;
+    private static final String PREFS_NAME = "reminders";
+    private static final String KEY_DELIVERED_UNTIL = "delivered_until";
+
+    /**
+     * Points the alarm at the first window with a task due after {@code after}, leaving out
+     * windows that were already announced.
+     */
+    public static void schedule(@NonNull Context context, long after) {
+        Context appContext = context.getApplicationContext();
+        long from = Math.max(after, deliveredUntil(appContext) - 1);
+        TaskRepository.getInstance(appContext).getNextDueDate(from, next -> {
+            AlarmManager alarmManager = appContext.getSystemService(AlarmManager.class);
+            if (next == 0) {
+                alarmManager.cancel(pendingIntent(appContext, 0));
+                return;
+            }
+            long windowStart = next - next % WINDOW_MS;
+            if (windowStart < deliveredUntil(appContext)) {
+                // The window fired while this was being looked up; its own reschedule wins.
+                return;
+            }
+            long triggerAt = Math.max(windowStart, System.currentTimeMillis());
+            // Inexact, so no exact-alarm permission is needed; it still fires within the window.
+            alarmManager.setWindow(AlarmManager.RTC_WAKEUP, triggerAt, WINDOW_MS / 3, pendingIntent(appContext, windowStart));
+        });
+    }
+
+    private static long deliveredUntil(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).getLong(KEY_DELIVERED_UNTIL, 0);
+    }
+
+    private static PendingIntent pendingIntent(Context context, long windowStart) {
+        Intent intent = new Intent(context, ReminderReceiver.class).putExtra(EXTRA_WINDOW_START, windowStart);
+        return PendingIntent.getBroadcast(context, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (Intent.ACTION_BOOT_COMPLETED.equals(intent.getAction())) {
+            // Alarms don't survive a reboot; ToDoApplication sets the next one again on start.
+            return;
+        }
+        long windowStart = intent.getLongExtra(EXTRA_WINDOW_START, 0);
+        long windowEnd = windowStart + WINDOW_MS;
+        Context appContext = context.getApplicationContext();
+        if (windowEnd <= deliveredUntil(appContext)) {
+            // Armed again before the window was saved as announced; it has been shown.
+            schedule(appContext, windowEnd - 1);
+            return;
+        }
+        PendingResult result = goAsync();
+        TaskRepository.getInstance(appContext).getTasksDueBetween(windowStart, windowEnd, tasks -> {
+            if (!tasks.isEmpty()) {
+                notify(appContext, tasks);
+            }
+            appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                    .putLong(KEY_DELIVERED_UNTIL, windowEnd).apply();
+            schedule(appContext, windowEnd - 1);
+            result.finish();
+        });
+    }
+
+    private static void notify(Context context, List<ToDoModel> tasks) {
+        if (ContextCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            return;
+        }
+        NotificationManager notificationManager = context.getSystemService(NotificationManager.class);
+        notificationManager.createNotificationChannel(new NotificationChannel(CHANNEL_ID,
+                context.getString(R.string.reminder_channel), NotificationManager.IMPORTANCE_DEFAULT));
+
+        String title = context.getResources().getQuantityString(R.plurals.tasks_due, tasks.size(), tasks.size());
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle();
+        for (int i = 0; i < Math.min(MAX_LINES, tasks.size()); i++) {
+            style.addLine(tasks.get(i).getTask());
+        }
+        PendingIntent openApp = PendingIntent.getActivity(context, 0, new Intent(context, MainActivity.class),
+                PendingIntent.FLAG_IMMUTABLE);
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.outline_done_all_24)
+                .setContentTitle(title)
+                .setContentText(tasks.get(0).getTask())
+                .setStyle(style)
+                .setContentIntent(openApp)
+                .setAutoCancel(true)
+                // Replaces the last reminder in place; only ring when none is showing.
+                .setOnlyAlertOnce(true);
+        NotificationManagerCompat.from(context).notify(NOTIFICATION_ID, builder.build());
+    }
+}
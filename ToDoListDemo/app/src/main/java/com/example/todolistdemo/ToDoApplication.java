@@ -0,0 +1,39 @@
+package com.example.todolistdemo;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.todolistdemo.Utils.PurgeDeletedTasksWorker;
+import com.example.todolistdemo.Utils.TaskChange;
+import com.example.todolistdemo.Utils.TaskPager;
+import com.example.todolistdemo.Utils.TaskRepository;
+
+public class ToDoApplication extends Application {
+    private static final long RESCHEDULE_DELAY_MS = 1000;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable rescheduleReminders =
+            () -> ReminderReceiver.schedule(this, System.currentTimeMillis());
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        TaskRepository repository = TaskRepository.getInstance(this);
+        // Opening the database and reading the first page overlap with inflating MainActivity.
+        repository.prefetchFirstPage(MainActivity.getSavedListId(this), TaskPager.PAGE_SIZE);
+        PurgeDeletedTasksWorker.schedule(this);
+
+        ReminderReceiver.schedule(this, System.currentTimeMillis());
+        repository.addChangeListener(change -> {
+            // A deleted task can only make the alarm early; it then finds nothing due and moves on.
+            if (change.type == TaskChange.DELETED) {
+                return;
+            }
+            // Rescheduling is a database read plus an AlarmManager call, so a burst of writes
+            // (a drag, a run of toggles, a batch edit) reschedules once, after it settles.
+            mainHandler.removeCallbacks(rescheduleReminders);
+            mainHandler.postDelayed(rescheduleReminders, RESCHEDULE_DELAY_MS);
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.todolistdemo.Utils;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Physically removes soft-deleted tasks once their undo window is long gone. It runs while
+ * the device is idle, so the deletes and the index maintenance they cause stay off the
+ * paths the user is waiting on.
+ */
+public class PurgeDeletedTasksWorker extends Worker {
+    private static final String WORK_NAME = "purge_deleted_tasks";
+    private static final long RETENTION_MS = TimeUnit.DAYS.toMillis(1);
+    private static final int BATCH_SIZE = 500;
+
+    public PurgeDeletedTasksWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    public static void schedule(@NonNull Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiresDeviceIdle(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(PurgeDeletedTasksWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        DatabaseHelper myDb = DatabaseHelper.getInstance(getApplicationContext());
+        myDb.purgeDeleted(System.currentTimeMillis() - RETENTION_MS, BATCH_SIZE);
+        return Result.success();
+    }
+}
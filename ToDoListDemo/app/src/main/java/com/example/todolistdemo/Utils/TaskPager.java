@@ -0,0 +1,209 @@
+package com.example.todolistdemo.Utils;
+
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.todolistdemo.Adapter.ToDoAdapter;
+import com.example.todolistdemo.Model.ToDoModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the tasks of one list in list order, one page at a time, as the list scrolls
+ * toward its end. Pages are keyed on the last task seen, so each query is an index range
+ * scan no matter how many rows the table holds. Lists are only read once they are shown;
+ * the ones shown recently are kept as loaded, so switching back to them needs no query.
+ */
+public class TaskPager extends RecyclerView.OnScrollListener implements TaskRepository.ChangeListener {
+    public static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 15;
+    // Rows kept across all cached lists, so a deeply scrolled list can't hold on to too much.
+    private static final int CACHED_ROWS = 1000;
+
+    private final TaskRepository repository;
+    private final ToDoAdapter adapter;
+    private final LruCache<Integer, LoadedList> cache = new LruCache<Integer, LoadedList>(CACHED_ROWS) {
+        @Override
+        protected int sizeOf(Integer listId, LoadedList list) {
+            return Math.max(1, list.tasks.size());
+        }
+    };
+    private int listId;
+    @Nullable
+    private ToDoModel lastTask;
+    private boolean loading;
+    private boolean endReached;
+    private boolean stopped;
+    // Bumped on stop/restart so a page that was already in flight is dropped.
+    private int generation;
+    @Nullable
+    private Runnable firstPageListener;
+
+    public TaskPager(TaskRepository repository, ToDoAdapter adapter, int listId) {
+        this.repository = repository;
+        this.adapter = adapter;
+        this.listId = listId;
+    }
+
+    public int getListId() {
+        return listId;
+    }
+
+    /**
+     * Shows another list. One of the lists shown recently comes back from memory as far as
+     * it had been loaded; any other starts again from its first page.
+     */
+    public void showList(int listId) {
+        if (listId == this.listId && !stopped) {
+            return;
+        }
+        if (!stopped && (endReached || lastTask != null)) {
+            cache.put(this.listId, new LoadedList(adapter.getTasks(), lastTask, endReached));
+        }
+        this.listId = listId;
+        LoadedList loaded = cache.remove(listId);
+        if (loaded == null) {
+            restart();
+            return;
+        }
+        stop();
+        stopped = false;
+        lastTask = loaded.lastTask;
+        endReached = loaded.endReached;
+        adapter.setTasks(loaded.tasks);
+    }
+
+    /** Runs once, after the first page has been handed to the adapter. */
+    public void setFirstPageListener(@Nullable Runnable firstPageListener) {
+        this.firstPageListener = firstPageListener;
+    }
+
+    /** Stops paging, for example while the list shows search results instead. */
+    public void stop() {
+        stopped = true;
+        loading = false;
+        generation++;
+    }
+
+    /** Forgets what was loaded and starts again from the newest task. */
+    public void restart() {
+        stop();
+        stopped = false;
+        endReached = false;
+        lastTask = null;
+        adapter.setTasks(new ArrayList<>());
+        loadNextPage();
+    }
+
+    public void loadNextPage() {
+        if (loading || endReached || stopped) {
+            return;
+        }
+        loading = true;
+        int requestGeneration = generation;
+        repository.getTasksPage(listId, lastTask, PAGE_SIZE, page -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            loading = false;
+            if (page.size() < PAGE_SIZE) {
+                endReached = true;
+            }
+            if (!page.isEmpty()) {
+                lastTask = page.get(page.size() - 1);
+                adapter.appendTasks(page);
+            }
+            if (firstPageListener != null) {
+                Runnable listener = firstPageListener;
+                firstPageListener = null;
+                listener.run();
+            }
+        });
+    }
+
+    /**
+     * Keeps the loaded rows in step with the database. Changed rows are read back by id;
+     * while paging is stopped for search, only rows already shown are refreshed. Cached
+     * lists that a change touches are dropped and load afresh when shown again.
+     */
+    @Override
+    public void onTasksChanged(TaskChange change) {
+        if (change.type == TaskChange.INVALIDATED) {
+            cache.evictAll();
+            if (!stopped) {
+                restart();
+            }
+            return;
+        }
+        if (change.type == TaskChange.DELETED) {
+            adapter.removeTasks(change.ids);
+            evictListsContaining(change.ids);
+            return;
+        }
+        repository.getTasks(change.ids, rows -> {
+            List<ToDoModel> shown = new ArrayList<>(rows.size());
+            for (ToDoModel row : rows) {
+                if (row.getListId() == listId) {
+                    shown.add(row);
+                } else {
+                    cache.remove(row.getListId());
+                }
+            }
+            // Search and upcoming results span every list.
+            if (stopped) {
+                adapter.applyChangedTasks(rows, false, null);
+                return;
+            }
+            // Before the first page arrives there is nothing to merge into; the page has the rows.
+            boolean addMissing = endReached || lastTask != null;
+            adapter.applyChangedTasks(shown, addMissing, endReached ? null : lastTask);
+        });
+    }
+
+    private void evictListsContaining(int[] ids) {
+        for (Map.Entry<Integer, LoadedList> entry : cache.snapshot().entrySet()) {
+            if (entry.getValue().containsAny(ids)) {
+                cache.remove(entry.getKey());
+            }
+        }
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (layoutManager != null
+                && layoutManager.findLastVisibleItemPosition() >= layoutManager.getItemCount() - PREFETCH_DISTANCE) {
+            loadNextPage();
+        }
+    }
+
+    private static final class LoadedList {
+        final List<ToDoModel> tasks;
+        @Nullable
+        final ToDoModel lastTask;
+        final boolean endReached;
+
+        LoadedList(List<ToDoModel> tasks, @Nullable ToDoModel lastTask, boolean endReached) {
+            this.tasks = tasks;
+            this.lastTask = lastTask;
+            this.endReached = endReached;
+        }
+
+        boolean containsAny(int[] ids) {
+            for (ToDoModel task : tasks) {
+                for (int id : ids) {
+                    if (task.getId() == id) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
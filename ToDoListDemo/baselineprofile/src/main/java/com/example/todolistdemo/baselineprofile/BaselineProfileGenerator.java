@@ -0,0 +1,57 @@
+package com.example.todolistdemo.baselineprofile;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Records the classes and methods used while starting up, adding tasks, scrolling and
+ * swiping, so they ship AOT-compiled. Needs an API 33+ device or a rooted API 28+ one:
+ * ./gradlew :app:generateBaselineProfile
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+    private static final String PACKAGE_NAME = "com.example.todolistdemo";
+    private static final int ADDED_TASKS = 30;
+    private static final long TIMEOUT_MS = 5_000;
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(PACKAGE_NAME, scope -> {
+            scope.pressHome();
+            scope.startActivityAndWait();
+            UiDevice device = scope.getDevice();
+
+            for (int i = 0; i < ADDED_TASKS; i++) {
+                device.wait(Until.findObject(By.res(PACKAGE_NAME, "fab")), TIMEOUT_MS).click();
+                UiObject2 editText = device.wait(Until.findObject(By.res(PACKAGE_NAME, "editText")), TIMEOUT_MS);
+                editText.setText("Profile task " + i);
+                device.findObject(By.res(PACKAGE_NAME, "buttonSave")).click();
+                device.wait(Until.gone(By.res(PACKAGE_NAME, "editText")), TIMEOUT_MS);
+            }
+
+            UiObject2 list = device.wait(Until.findObject(By.res(PACKAGE_NAME, "recyclerView")), TIMEOUT_MS);
+            list.setGestureMargin(device.getDisplayWidth() / 5);
+            list.fling(Direction.DOWN);
+            list.fling(Direction.UP);
+
+            device.wait(Until.findObject(By.res(PACKAGE_NAME, "mcheckbox")), TIMEOUT_MS).swipe(Direction.LEFT, 0.8f);
+            device.wait(Until.hasObject(By.res(PACKAGE_NAME, "snackbar_text")), TIMEOUT_MS);
+            device.waitForIdle();
+            return Unit.INSTANCE;
+        });
+    }
+}
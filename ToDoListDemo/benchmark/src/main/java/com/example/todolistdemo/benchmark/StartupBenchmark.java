@@ -0,0 +1,63 @@
+package com.example.todolistdemo.benchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+import static com.example.todolistdemo.benchmark.TaskSeeder.PACKAGE_NAME;
+
+/**
+ * Launch times with 10k tasks stored. timeToInitialDisplayMs is the first frame;
+ * timeToFullDisplayMs ends when MainActivity reports the first page of tasks drawn.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+    private static final int TASK_COUNT = 10_000;
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @BeforeClass
+    public static void seedTasks() {
+        TaskSeeder.seed(TASK_COUNT);
+    }
+
+    @Test
+    public void coldStartup() {
+        measureStartup(StartupMode.COLD);
+    }
+
+    @Test
+    public void warmStartup() {
+        measureStartup(StartupMode.WARM);
+    }
+
+    private void measureStartup(StartupMode startupMode) {
+        benchmarkRule.measureRepeated(
+                PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                CompilationMode.DEFAULT,
+                startupMode,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                });
+    }
+}
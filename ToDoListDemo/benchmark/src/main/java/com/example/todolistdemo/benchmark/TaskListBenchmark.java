@@ -0,0 +1,122 @@
+package com.example.todolistdemo.benchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+import static com.example.todolistdemo.benchmark.TaskSeeder.PACKAGE_NAME;
+
+/**
+ * Frame timing for flinging, editing and swipe-deleting in a 10k task list. Run it on
+ * two revisions of :app to compare them:
+ * ./gradlew :benchmark:connectedBenchmarkAndroidTest
+ */
+@RunWith(AndroidJUnit4.class)
+public class TaskListBenchmark {
+    private static final int TASK_COUNT = 10_000;
+    private static final int ITERATIONS = 5;
+    private static final long TIMEOUT_MS = 5_000;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @BeforeClass
+    public static void seedTasks() {
+        TaskSeeder.seed(TASK_COUNT);
+    }
+
+    @Test
+    public void scrollTaskList() {
+        benchmarkRule.measureRepeated(
+                PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                CompilationMode.DEFAULT,
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiObject2 list = findTaskList(scope.getDevice());
+                    for (int i = 0; i < 3; i++) {
+                        list.fling(Direction.DOWN);
+                    }
+                    scope.getDevice().waitForIdle();
+                    return Unit.INSTANCE;
+                });
+    }
+
+    @Test
+    public void editOneTask() {
+        benchmarkRule.measureRepeated(
+                PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                CompilationMode.DEFAULT,
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiDevice device = scope.getDevice();
+                    UiObject2 firstTask = device.wait(Until.findObject(By.res(PACKAGE_NAME, "mcheckbox")), TIMEOUT_MS);
+                    firstTask.swipe(Direction.RIGHT, 0.8f);
+                    UiObject2 editText = device.wait(Until.findObject(By.res(PACKAGE_NAME, "editText")), TIMEOUT_MS);
+                    editText.setText("Edited " + System.nanoTime());
+                    device.findObject(By.res(PACKAGE_NAME, "buttonSave")).click();
+                    device.waitForIdle();
+                    return Unit.INSTANCE;
+                });
+    }
+
+    @Test
+    public void swipeDeleteTask() {
+        benchmarkRule.measureRepeated(
+                PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                CompilationMode.DEFAULT,
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiDevice device = scope.getDevice();
+                    UiObject2 firstTask = device.wait(Until.findObject(By.res(PACKAGE_NAME, "mcheckbox")), TIMEOUT_MS);
+                    firstTask.swipe(Direction.LEFT, 0.8f);
+                    // The row animates out and the undo snackbar slides in.
+                    device.wait(Until.hasObject(By.res(PACKAGE_NAME, "snackbar_text")), TIMEOUT_MS);
+                    device.waitForIdle();
+                    return Unit.INSTANCE;
+                });
+    }
+
+    static UiObject2 findTaskList(UiDevice device) {
+        UiObject2 list = device.wait(Until.findObject(By.res(PACKAGE_NAME, "recyclerView")), TIMEOUT_MS);
+        // Keep flings away from the screen edges so they don't turn into system gestures.
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        return list;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.todolistdemo.benchmark;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.Until;
+
+import java.io.IOException;
+
+/** Fills the app's task table through the benchmark-only SeedTasksActivity. */
+final class TaskSeeder {
+    static final String PACKAGE_NAME = "com.example.todolistdemo";
+    private static final long SEED_TIMEOUT_MS = 60_000;
+
+    private TaskSeeder() {
+    }
+
+    static void seed(int taskCount) {
+        UiDevice device = UiDevice.getInstance(InstrumentationRegistry.getInstrumentation());
+        try {
+            device.executeShellCommand("am start -W -n " + PACKAGE_NAME
+                    + "/.SeedTasksActivity --ei task_count " + taskCount);
+            // The rows are written in the background; the activity closes once they are committed.
+            if (!device.wait(Until.gone(By.pkg(PACKAGE_NAME)), SEED_TIMEOUT_MS)) {
+                throw new IllegalStateException("Seeding " + taskCount + " tasks timed out");
+            }
+            // The seeding process already prefetched the old first page, so start over.
+            device.executeShellCommand("am force-stop " + PACKAGE_NAME);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not seed " + taskCount + " tasks", e);
+        }
+    }
+}
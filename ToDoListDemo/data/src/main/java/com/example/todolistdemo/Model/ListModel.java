@@ -0,0 +1,23 @@
+package com.example.todolistdemo.Model;
+
+public class ListModel {
+    /** The list every task belonged to before there were lists. It always exists. */
+    public static final int DEFAULT_LIST_ID = 1;
+
+    private int id;
+    private String name;
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+    public void setId(int id) {
+        this.id = id;
+    }
+    public void setName(String name) {
+        this.name = name;
+    }
+}
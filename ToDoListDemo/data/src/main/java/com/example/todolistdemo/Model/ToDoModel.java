@@ -0,0 +1,60 @@
+package com.example.todolistdemo.Model;
+
+public class ToDoModel {
+    private String task;
+    private int id,status;
+    private double position;
+    private long dueDate;
+    private int priority;
+    private int listId = ListModel.DEFAULT_LIST_ID;
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTask() {
+        return task;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+    public void setId(int id) {
+        this.id = id;
+    }
+    public void setTask(String task) {
+        this.task = task;
+    }
+    public void setStatus(int status) {
+        this.status = status;
+    }
+    /** Sort key within the list, highest first. Only its order relative to other tasks matters. */
+    public double getPosition() {
+        return position;
+    }
+    public void setPosition(double position) {
+        this.position = position;
+    }
+    /** Due time in epoch milliseconds, or 0 when the task has no due date. */
+    public long getDueDate() {
+        return dueDate;
+    }
+    public void setDueDate(long dueDate) {
+        this.dueDate = dueDate;
+    }
+    /** 0 is low, 1 medium and 2 high. */
+    public int getPriority() {
+        return priority;
+    }
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+    public int getListId() {
+        return listId;
+    }
+    public void setListId(int listId) {
+        this.listId = listId;
+    }
+
+
+}
@@ -0,0 +1,809 @@
+package com.example.todolistdemo.Utils;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.example.todolistdemo.Model.ListModel;
+import com.example.todolistdemo.Model.ToDoModel;
+import com.example.todolistdemo.data.R;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class DatabaseHelper extends SQLiteOpenHelper {
+    /** Called on the writing thread once a change has been committed. */
+    public interface OnTasksChangedListener {
+        void onTasksChanged(TaskChange change);
+    }
+
+    private static DatabaseHelper instance;
+    private final List<OnTasksChangedListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final boolean writeAheadLogging;
+    private SQLiteDatabase statementDb;
+    private SQLiteStatement insertStatement;
+    private SQLiteStatement updateTaskStatement;
+    private SQLiteStatement updateDetailsStatement;
+    private SQLiteStatement nextDueDateStatement;
+    private SQLiteStatement updateStatusStatement;
+    private SQLiteStatement deleteStatement;
+    private SQLiteStatement restoreStatement;
+    private SQLiteStatement updatePositionStatement;
+    private SQLiteStatement nextPositionStatement;
+    private static final String DATABASE_NAME = "TODO_DATABASE";
+    private static final String TABLE_NAME = "TODO_TABLE";
+    private static final String COL1 = "ID";
+    private static final String COL2 = "TASK";
+    private static final String COL3 = "STATUS";
+    private static final String COL_DUE_DATE = "DUE_DATE";
+    private static final String COL_PRIORITY = "PRIORITY";
+    private static final String COL_POSITION = "POSITION";
+    private static final String COL_DELETED_AT = "DELETED_AT";
+    private static final String COL_LIST_ID = "LIST_ID";
+    private static final String LISTS_TABLE_NAME = "TODO_LISTS";
+    private static final String COL_LIST_NAME = "NAME";
+    private static final String NOT_DELETED = COL_DELETED_AT + " IS NULL";
+    private static final String SEARCH_TABLE_NAME = "TODO_FTS";
+    private static final int IMPORT_BATCH_SIZE = 1000;
+    private static final String LIST_ORDER = COL_POSITION + " DESC, " + COL1 + " DESC";
+    // Open tasks with a due date: the rows TODO_UPCOMING_INDEX covers. Queries must repeat it
+    // word for word for SQLite to pick the partial index.
+    private static final String OPEN_DUE = COL_DUE_DATE + " IS NOT NULL AND " + COL3 + "=0 AND " + NOT_DELETED;
+    private static final String DUE_ORDER = COL_DUE_DATE + ", " + COL_PRIORITY + " DESC";
+    private static final int DATABASE_VERSION = 7;
+
+    /**
+     * Schema history, oldest first. A new install creates the version 1 table and runs
+     * every step, so fresh and upgraded databases always end up with the same schema.
+     * Add a step here, and never edit a shipped one, when the schema changes.
+     */
+    private static final Migration[] MIGRATIONS = {
+            new Migration(1, 2) {
+                @Override
+                public void migrate(@NonNull SQLiteDatabase db) {
+                    createSearchIndex(db);
+                    db.execSQL("INSERT INTO " + SEARCH_TABLE_NAME + "(" + SEARCH_TABLE_NAME + ") VALUES('rebuild')");
+                }
+            },
+            new Migration(2, 3) {
+                @Override
+                public void migrate(@NonNull SQLiteDatabase db) {
+                    // ADD COLUMN with a constant default only rewrites the schema, not every row.
+                    db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COL_DUE_DATE + " INTEGER");
+                    db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COL_PRIORITY + " INTEGER NOT NULL DEFAULT 0");
+                    db.execSQL("CREATE INDEX IF NOT EXISTS TODO_DUE_DATE_INDEX ON " + TABLE_NAME
+                            + " (" + COL_DUE_DATE + ", " + COL_PRIORITY + ")");
+                }
+            },
+            new Migration(3, 4) {
+                @Override
+                public void migrate(@NonNull SQLiteDatabase db) {
+                    // Seeding POSITION from ID keeps the old newest-first order.
+                    db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COL_POSITION + " REAL NOT NULL DEFAULT 0");
+                    db.execSQL("UPDATE " + TABLE_NAME + " SET " + COL_POSITION + "=" + COL1);
+                    db.execSQL("CREATE INDEX IF NOT EXISTS TODO_POSITION_INDEX ON " + TABLE_NAME
+                            + " (" + COL_POSITION + ", " + COL1 + ")");
+                }
+            },
+            new Migration(4, 5) {
+                @Override
+                public void migrate(@NonNull SQLiteDatabase db) {
+                    db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COL_DELETED_AT + " INTEGER");
+                    // Only tombstones are indexed, so the purge finds them without growing the index for live rows.
+                    db.execSQL("CREATE INDEX IF NOT EXISTS TODO_DELETED_AT_INDEX ON " + TABLE_NAME
+                            + " (" + COL_DELETED_AT + ") WHERE " + COL_DELETED_AT + " IS NOT NULL");
+                }
+            },
+            new Migration(5, 6) {
+                @Override
+                public void migrate(@NonNull SQLiteDatabase db) {
+                    // Upcoming and reminder queries only ever look at open, dated tasks, and
+                    // sort them by due date then priority, highest first.
+                    db.execSQL("DROP INDEX IF EXISTS TODO_DUE_DATE_INDEX");
+                    db.execSQL("CREATE INDEX IF NOT EXISTS TODO_UPCOMING_INDEX ON " + TABLE_NAME
+                            + " (" + COL_DUE_DATE + ", " + COL_PRIORITY + " DESC) WHERE " + OPEN_DUE);
+                }
+            },
+            new Migration(6, 7) {
+                @Override
+                public void migrate(@NonNull SQLiteDatabase db) {
+                    db.execSQL("CREATE TABLE IF NOT EXISTS " + LISTS_TABLE_NAME + " (" + COL1 + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                            + COL_LIST_NAME + " TEXT NOT NULL)");
+                    db.execSQL("INSERT INTO " + LISTS_TABLE_NAME + " (" + COL1 + ", " + COL_LIST_NAME + ") VALUES ("
+                            + ListModel.DEFAULT_LIST_ID + ", 'Tasks')");
+                    // Existing tasks all land in the default list. SQLite only accepts a
+                    // REFERENCES column with a non-null default while foreign keys are off,
+                    // which is why onOpen, not onConfigure, switches them on.
+                    db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COL_LIST_ID + " INTEGER NOT NULL DEFAULT "
+                            + ListModel.DEFAULT_LIST_ID + " REFERENCES " + LISTS_TABLE_NAME + "(" + COL1 + ")");
+                    // Paging now happens within one list, so the list id leads the paging
+                    // index. It also serves the foreign key's lookups from the parent side.
+                    db.execSQL("DROP INDEX IF EXISTS TODO_POSITION_INDEX");
+                    db.execSQL("CREATE INDEX IF NOT EXISTS TODO_LIST_POSITION_INDEX ON " + TABLE_NAME
+                            + " (" + COL_LIST_ID + ", " + COL_POSITION + ", " + COL1 + ")");
+                }
+            },
+    };
+    // Negative cache_size is in KiB rather than pages.
+    private static final int PAGE_CACHE_KIB = 4096;
+
+    /**
+     * Returns the process-wide helper. All callers share its connection pool, so SQLite
+     * can hand out concurrent readers when write-ahead logging is switched on through
+     * the use_write_ahead_logging resource.
+     */
+    public static synchronized DatabaseHelper getInstance(@NonNull Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            instance = new DatabaseHelper(appContext, DATABASE_NAME,
+                    appContext.getResources().getBoolean(R.bool.use_write_ahead_logging));
+        }
+        return instance;
+    }
+
+    @VisibleForTesting
+    public DatabaseHelper(@Nullable Context context, @Nullable String name) {
+        this(context, name, false);
+    }
+
+    @VisibleForTesting
+    public DatabaseHelper(@Nullable Context context, @Nullable String name, boolean writeAheadLogging) {
+        super(context, name, null, DATABASE_VERSION);
+        this.writeAheadLogging = writeAheadLogging;
+        setWriteAheadLoggingEnabled(writeAheadLogging);
+    }
+
+    public boolean isWriteAheadLogging() {
+        return writeAheadLogging;
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // WAL only needs the log synced at checkpoints; rollback journals need FULL to be safe.
+        db.execSQL("PRAGMA synchronous = " + (writeAheadLogging ? "NORMAL" : "FULL"));
+        db.execSQL("PRAGMA cache_size = -" + PAGE_CACHE_KIB);
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        // Runs after any migration has committed; see Migration(6, 7).
+        db.setForeignKeyConstraintsEnabled(true);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        String createTableStatement = "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (ID INTEGER PRIMARY KEY AUTOINCREMENT, TASK TEXT, STATUS INTEGER)";
+        db.execSQL(createTableStatement);
+        migrate(db, 1, DATABASE_VERSION);
+    }
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        migrate(db, oldVersion, newVersion);
+    }
+    /**
+     * Runs each step between the two versions in its own transaction. They are nested in
+     * the transaction SQLiteOpenHelper opens around onCreate/onUpgrade, so if any step
+     * fails the whole upgrade rolls back and the stored version stays where it was.
+     */
+    private static void migrate(SQLiteDatabase db, int fromVersion, int toVersion) {
+        int version = fromVersion;
+        for (Migration migration : MIGRATIONS) {
+            if (migration.startVersion != version || migration.endVersion > toVersion) {
+                continue;
+            }
+            db.beginTransaction();
+            try {
+                migration.migrate(db);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            version = migration.endVersion;
+        }
+        if (version != toVersion) {
+            throw new IllegalStateException("No migration path from version " + fromVersion + " to " + toVersion);
+        }
+    }
+    /**
+     * An external-content FTS4 table over TASK. It stores only the index, and the triggers
+     * keep it in step with every insert, update and delete on TODO_TABLE, including the
+     * batch ones.
+     */
+    private static void createSearchIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + SEARCH_TABLE_NAME + " USING fts4(content=\"" + TABLE_NAME + "\", " + COL2 + ")");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS TODO_FTS_BEFORE_DELETE BEFORE DELETE ON " + TABLE_NAME
+                + " BEGIN DELETE FROM " + SEARCH_TABLE_NAME + " WHERE docid=old." + COL1 + "; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS TODO_FTS_BEFORE_UPDATE BEFORE UPDATE OF " + COL2 + " ON " + TABLE_NAME
+                + " BEGIN DELETE FROM " + SEARCH_TABLE_NAME + " WHERE docid=old." + COL1 + "; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS TODO_FTS_AFTER_UPDATE AFTER UPDATE OF " + COL2 + " ON " + TABLE_NAME
+                + " BEGIN INSERT INTO " + SEARCH_TABLE_NAME + "(docid, " + COL2 + ") VALUES(new." + COL1 + ", new." + COL2 + "); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS TODO_FTS_AFTER_INSERT AFTER INSERT ON " + TABLE_NAME
+                + " BEGIN INSERT INTO " + SEARCH_TABLE_NAME + "(docid, " + COL2 + ") VALUES(new." + COL1 + ", new." + COL2 + "); END");
+    }
+    /** Opens the database, running any pending migration, and compiles the write statements. */
+    public synchronized void warmUp(){
+        prepareStatements();
+    }
+    public void addOnTasksChangedListener(OnTasksChangedListener listener){
+        changeListeners.add(listener);
+    }
+    public void removeOnTasksChangedListener(OnTasksChangedListener listener){
+        changeListeners.remove(listener);
+    }
+    private void notifyChanged(int type, int... ids){
+        if ((ids.length == 0 && type != TaskChange.INVALIDATED) || changeListeners.isEmpty()) {
+            return;
+        }
+        TaskChange change = new TaskChange(type, ids);
+        for (OnTasksChangedListener listener : changeListeners) {
+            listener.onTasksChanged(change);
+        }
+    }
+    /**
+     * Statements are compiled once per open database and rebound on every call, so the
+     * write paths skip SQL parsing and don't allocate ContentValues or String[] arguments.
+     */
+    private SQLiteDatabase prepareStatements(){
+        SQLiteDatabase db = this.getWritableDatabase();
+        if (db == statementDb) {
+            return db;
+        }
+        statementDb = db;
+        insertStatement = db.compileStatement("INSERT INTO " + TABLE_NAME + " (" + COL2 + ", " + COL3 + ", " + COL_POSITION
+                + ", " + COL_DUE_DATE + ", " + COL_PRIORITY + ", " + COL_LIST_ID + ") VALUES (?, ?, ?, ?, ?, ?)");
+        updateTaskStatement = db.compileStatement("UPDATE " + TABLE_NAME + " SET " + COL2 + "=? WHERE " + COL1 + "=?");
+        updateDetailsStatement = db.compileStatement("UPDATE " + TABLE_NAME + " SET " + COL2 + "=?, " + COL_DUE_DATE + "=?, "
+                + COL_PRIORITY + "=? WHERE " + COL1 + "=?");
+        nextDueDateStatement = db.compileStatement("SELECT IFNULL(MIN(" + COL_DUE_DATE + "), 0) FROM " + TABLE_NAME
+                + " WHERE " + OPEN_DUE + " AND " + COL_DUE_DATE + ">?");
+        updateStatusStatement = db.compileStatement("UPDATE " + TABLE_NAME + " SET " + COL3 + "=? WHERE " + COL1 + "=?");
+        deleteStatement = db.compileStatement("UPDATE " + TABLE_NAME + " SET " + COL_DELETED_AT + "=? WHERE " + COL1 + "=?");
+        restoreStatement = db.compileStatement("UPDATE " + TABLE_NAME + " SET " + COL_DELETED_AT + "=NULL WHERE " + COL1 + "=?");
+        updatePositionStatement = db.compileStatement("UPDATE " + TABLE_NAME + " SET " + COL_POSITION + "=? WHERE " + COL1 + "=?");
+        nextPositionStatement = db.compileStatement("SELECT IFNULL(MAX(" + COL_POSITION + "), 0) + 1 FROM " + TABLE_NAME
+                + " WHERE " + COL_LIST_ID + "=?");
+        return db;
+    }
+    // A due date of 0 means the task has none and is stored as NULL, which keeps it out of TODO_UPCOMING_INDEX.
+    private static void bindDueDate(SQLiteStatement statement, int index, long dueDate){
+        if (dueDate == 0) {
+            statement.bindNull(index);
+        } else {
+            statement.bindLong(index, dueDate);
+        }
+    }
+    private long executeInsert(int listId, @Nullable String task, int status, double position, long dueDate, int priority){
+        bindText(insertStatement, 1, task);
+        insertStatement.bindLong(2, status);
+        insertStatement.bindDouble(3, position);
+        bindDueDate(insertStatement, 4, dueDate);
+        insertStatement.bindLong(5, priority);
+        insertStatement.bindLong(6, listId);
+        return insertStatement.executeInsert();
+    }
+    private static void bindText(SQLiteStatement statement, int index, @Nullable String value){
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+    /** Inserts the task at the top of its list and sets its position key on the model. */
+    public synchronized long insertTask(ToDoModel model){
+        prepareStatements();
+        model.setPosition(nextPosition(model.getListId()));
+        long id = executeInsert(model.getListId(), model.getTask(), 0, model.getPosition(), model.getDueDate(), model.getPriority());
+        notifyChanged(TaskChange.INSERTED, (int) id);
+        return id;
+    }
+    /** One above the current top of the list. MAX within one list of TODO_LIST_POSITION_INDEX is a single seek. */
+    private double nextPosition(int listId){
+        nextPositionStatement.bindLong(1, listId);
+        return Double.parseDouble(nextPositionStatement.simpleQueryForString());
+    }
+    /**
+     * Moves a task to just below {@code aboveId}, or to the top of its list when that is -1.
+     * The neighbours are read here rather than taken from the caller, since rows that are
+     * not paged in yet still count. Usually the task gets the midpoint of its neighbours'
+     * keys and only its row is written. Once repeated moves into one gap leave no double
+     * between them, the live tasks of the list are renumbered in the same transaction.
+     */
+    public synchronized void moveTask(int id, int aboveId){
+        SQLiteDatabase db = prepareStatements();
+        boolean renumbered = false;
+        db.beginTransaction();
+        try {
+            ToDoModel moved = getTask(db, id);
+            ToDoModel above = aboveId == -1 ? null : getTask(db, aboveId);
+            if (moved == null || (aboveId != -1 && (above == null || above.getListId() != moved.getListId()))) {
+                return;
+            }
+            ToDoModel below = nextTask(db, moved.getListId(), above, id);
+            double position;
+            if (above == null && below == null) {
+                return;
+            } else if (above == null) {
+                position = below.getPosition() + 1;
+            } else if (below == null) {
+                position = above.getPosition() - 1;
+            } else if (inOrder(above, moved) && inOrder(moved, below)) {
+                return;
+            } else {
+                position = above.getPosition() / 2 + below.getPosition() / 2;
+                renumbered = position <= below.getPosition() || position >= above.getPosition();
+            }
+            if (renumbered) {
+                renumber(db, moved.getListId(), id, aboveId);
+            } else {
+                updatePositionStatement.bindDouble(1, position);
+                updatePositionStatement.bindLong(2, id);
+                updatePositionStatement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        // Every key of the list changed, so paging anchors held by readers are stale too.
+        if (renumbered) {
+            notifyChanged(TaskChange.INVALIDATED);
+        } else {
+            notifyChanged(TaskChange.UPDATED, id);
+        }
+    }
+    /** Whether {@code upper} comes before {@code lower} in LIST_ORDER. */
+    private static boolean inOrder(ToDoModel upper, ToDoModel lower){
+        return upper.getPosition() > lower.getPosition()
+                || (upper.getPosition() == lower.getPosition() && upper.getId() > lower.getId());
+    }
+    @Nullable
+    private static ToDoModel getTask(SQLiteDatabase db, int id){
+        try (Cursor cursor = db.query(TABLE_NAME, null, COL1 + "=? AND " + NOT_DELETED,
+                new String[]{String.valueOf(id)}, null, null, null)) {
+            List<ToDoModel> tasks = readTasks(cursor, new ArrayList<>(1));
+            return tasks.isEmpty() ? null : tasks.get(0);
+        }
+    }
+    /** The live task right after {@code after} in the list, or the top one when it is null, skipping {@code skipId}. */
+    @Nullable
+    private static ToDoModel nextTask(SQLiteDatabase db, int listId, @Nullable ToDoModel after, int skipId){
+        String selection = COL_LIST_ID + "=? AND " + NOT_DELETED + " AND " + COL1 + "!=?";
+        String[] selectionArgs = {String.valueOf(listId), String.valueOf(skipId)};
+        if (after != null) {
+            String position = String.valueOf(after.getPosition());
+            selection += " AND (" + COL_POSITION + "<? OR (" + COL_POSITION + "=? AND " + COL1 + "<?))";
+            selectionArgs = new String[]{selectionArgs[0], selectionArgs[1], position, position, String.valueOf(after.getId())};
+        }
+        try (Cursor cursor = db.query(TABLE_NAME, null, selection, selectionArgs, null, null, LIST_ORDER, "1")) {
+            List<ToDoModel> tasks = readTasks(cursor, new ArrayList<>(1));
+            return tasks.isEmpty() ? null : tasks.get(0);
+        }
+    }
+    /** Gives the live tasks of the list whole-number keys, top = count, with {@code id} placed right below {@code aboveId}. */
+    private void renumber(SQLiteDatabase db, int listId, int id, int aboveId){
+        int[] ids;
+        try (Cursor cursor = db.query(TABLE_NAME, new String[]{COL1}, COL_LIST_ID + "=? AND " + NOT_DELETED + " AND " + COL1 + "!=?",
+                new String[]{String.valueOf(listId), String.valueOf(id)}, null, null, LIST_ORDER)) {
+            ids = new int[cursor.getCount() + 1];
+            int i = 0;
+            if (aboveId == -1) {
+                ids[i++] = id;
+            }
+            while (cursor.moveToNext()) {
+                ids[i++] = cursor.getInt(0);
+                if (ids[i - 1] == aboveId) {
+                    ids[i++] = id;
+                }
+            }
+        }
+        for (int i = 0; i < ids.length; i++) {
+            updatePositionStatement.bindDouble(1, ids.length - i);
+            updatePositionStatement.bindLong(2, ids[i]);
+            updatePositionStatement.executeUpdateDelete();
+        }
+    }
+    public synchronized void updateTask(int id,String task){
+        prepareStatements();
+        bindText(updateTaskStatement, 1, task);
+        updateTaskStatement.bindLong(2, id);
+        updateTaskStatement.executeUpdateDelete();
+        notifyChanged(TaskChange.UPDATED, id);
+    }
+    public synchronized void updateTask(int id,String task,long dueDate,int priority){
+        prepareStatements();
+        bindText(updateDetailsStatement, 1, task);
+        bindDueDate(updateDetailsStatement, 2, dueDate);
+        updateDetailsStatement.bindLong(3, priority);
+        updateDetailsStatement.bindLong(4, id);
+        updateDetailsStatement.executeUpdateDelete();
+        notifyChanged(TaskChange.UPDATED, id);
+    }
+    public synchronized void updateStatus(int id,int status){
+        prepareStatements();
+        updateStatusStatement.bindLong(1, status);
+        updateStatusStatement.bindLong(2, id);
+        updateStatusStatement.executeUpdateDelete();
+        notifyChanged(TaskChange.UPDATED, id);
+    }
+    /**
+     * Soft-deletes the task: it disappears from every query but stays on disk as a
+     * tombstone, so it can be restored until {@link #purgeDeleted} removes it.
+     */
+    public synchronized void deleteTask(int id){
+        prepareStatements();
+        deleteStatement.bindLong(1, System.currentTimeMillis());
+        deleteStatement.bindLong(2, id);
+        deleteStatement.executeUpdateDelete();
+        notifyChanged(TaskChange.DELETED, id);
+    }
+    /** Inserts all tasks in one transaction and sets the new row id on each of them. */
+    public synchronized void insertTasks(List<ToDoModel> models){
+        SQLiteDatabase db = prepareStatements();
+        db.beginTransaction();
+        try {
+            int listId = -1;
+            double position = 0;
+            for (ToDoModel model : models) {
+                // Tasks usually come in runs for one list; the top is only looked up when the list changes.
+                if (model.getListId() != listId) {
+                    listId = model.getListId();
+                    position = nextPosition(listId);
+                }
+                model.setPosition(position++);
+                model.setId((int) executeInsert(listId, model.getTask(), model.getStatus(), model.getPosition(),
+                        model.getDueDate(), model.getPriority()));
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        int[] ids = new int[models.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = models.get(i).getId();
+        }
+        notifyChanged(TaskChange.INSERTED, ids);
+    }
+    public synchronized void updateStatuses(int[] ids,int status){
+        SQLiteDatabase db = prepareStatements();
+        db.beginTransaction();
+        try {
+            updateStatusStatement.bindLong(1, status);
+            for (int id : ids) {
+                updateStatusStatement.bindLong(2, id);
+                updateStatusStatement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        notifyChanged(TaskChange.UPDATED, ids);
+    }
+    /** Writes a different status for each task, {@code statuses[i]} going to {@code ids[i]}, in one transaction. */
+    public synchronized void updateStatuses(int[] ids,int[] statuses){
+        SQLiteDatabase db = prepareStatements();
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                updateStatusStatement.bindLong(1, statuses[i]);
+                updateStatusStatement.bindLong(2, ids[i]);
+                updateStatusStatement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        notifyChanged(TaskChange.UPDATED, ids);
+    }
+    public synchronized void deleteTasks(int[] ids){
+        SQLiteDatabase db = prepareStatements();
+        db.beginTransaction();
+        try {
+            deleteStatement.bindLong(1, System.currentTimeMillis());
+            for (int id : ids) {
+                deleteStatement.bindLong(2, id);
+                deleteStatement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        notifyChanged(TaskChange.DELETED, ids);
+    }
+    /** Brings soft-deleted tasks back, as long as they have not been purged yet. */
+    public synchronized void restoreTasks(int[] ids){
+        SQLiteDatabase db = prepareStatements();
+        db.beginTransaction();
+        try {
+            for (int id : ids) {
+                restoreStatement.bindLong(1, id);
+                restoreStatement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        // Restored rows come back into view, so listeners see them as new.
+        notifyChanged(TaskChange.INSERTED, ids);
+    }
+    /** Soft-deletes every completed task in the list and returns how many were removed. */
+    public synchronized int clearCompleted(int listId){
+        SQLiteDatabase db = prepareStatements();
+        int[] ids;
+        db.beginTransaction();
+        try {
+            try (Cursor cursor = db.query(TABLE_NAME, new String[]{COL1}, COL_LIST_ID + "=? AND " + COL3 + "=1 AND " + NOT_DELETED,
+                    new String[]{String.valueOf(listId)}, null, null, null)) {
+                ids = new int[cursor.getCount()];
+                for (int i = 0; cursor.moveToNext(); i++) {
+                    ids[i] = cursor.getInt(0);
+                }
+            }
+            deleteStatement.bindLong(1, System.currentTimeMillis());
+            for (int id : ids) {
+                deleteStatement.bindLong(2, id);
+                deleteStatement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        notifyChanged(TaskChange.DELETED, ids);
+        return ids.length;
+    }
+    /**
+     * Streams every live task of the list, top first, to {@code channel} in the
+     * {@link TaskBackup} format and returns how many were written. Rows come straight off
+     * the cursor window, so memory use stays flat however large the table is.
+     */
+    public synchronized int exportTasks(int listId, WritableByteChannel channel) throws IOException {
+        // Holding the lock keeps the writes out, so the count in the header matches the rows.
+        SQLiteDatabase db = getReadableDatabase();
+        try (Cursor cursor = db.query(TABLE_NAME, new String[]{COL2, COL3, COL_DUE_DATE, COL_PRIORITY},
+                COL_LIST_ID + "=? AND " + NOT_DELETED, new String[]{String.valueOf(listId)}, null, null, LIST_ORDER)) {
+            int count = cursor.getCount();
+            TaskBackup.Writer writer = new TaskBackup.Writer(channel, count);
+            while (cursor.moveToNext()) {
+                writer.write(cursor.getString(0), cursor.getInt(1), cursor.isNull(2) ? 0 : cursor.getLong(2), cursor.getInt(3));
+            }
+            writer.flush();
+            return count;
+        }
+    }
+    /**
+     * Adds the tasks from a backup above the existing ones in the list, keeping their order. Rows are
+     * inserted in transactions of {@link #IMPORT_BATCH_SIZE}, so if the backup turns out
+     * to be truncated, the batches before the damage stay imported. Returns the number of
+     * tasks added.
+     */
+    public synchronized int importTasks(int listId, ReadableByteChannel channel) throws IOException {
+        TaskBackup.Reader reader = new TaskBackup.Reader(channel);
+        int count = reader.getCount();
+        SQLiteDatabase db = prepareStatements();
+        double top = nextPosition(listId) + count;
+        int imported = 0;
+        try {
+            while (imported < count) {
+                int batchEnd = Math.min(count, imported + IMPORT_BATCH_SIZE);
+                db.beginTransaction();
+                try {
+                    for (int i = imported; i < batchEnd; i++) {
+                        reader.next();
+                        executeInsert(listId, reader.getTask(), reader.getStatus(), top - i,
+                                reader.getDueDate(), reader.getPriority());
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+                imported = batchEnd;
+            }
+        } finally {
+            notifyChanged(TaskChange.INVALIDATED);
+        }
+        return imported;
+    }
+    /**
+     * Physically removes tasks soft-deleted before {@code deletedBefore}. Each batch of
+     * {@code batchSize} rows gets its own short transaction, so app writes can slip in
+     * between batches. Returns the number of rows removed.
+     */
+    public int purgeDeleted(long deletedBefore, int batchSize){
+        SQLiteDatabase db = getWritableDatabase();
+        String[] args = {String.valueOf(deletedBefore)};
+        String batch = COL1 + " IN (SELECT " + COL1 + " FROM " + TABLE_NAME
+                + " WHERE " + COL_DELETED_AT + "<? LIMIT " + batchSize + ")";
+        int total = 0;
+        int purged;
+        do {
+            db.beginTransaction();
+            try {
+                purged = db.delete(TABLE_NAME, batch, args);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            total += purged;
+        } while (purged == batchSize);
+        return total;
+    }
+    @Override
+    public synchronized void close() {
+        statementDb = null;
+        closeStatements();
+        super.close();
+    }
+    private void closeStatements(){
+        for (SQLiteStatement statement : new SQLiteStatement[]{insertStatement, updateTaskStatement, updateDetailsStatement, nextDueDateStatement,
+                updateStatusStatement, deleteStatement,
+                restoreStatement, updatePositionStatement, nextPositionStatement}) {
+            if (statement != null) {
+                statement.close();
+            }
+        }
+    }
+    public List<ToDoModel> getAllTasks(){
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.query(TABLE_NAME,null,NOT_DELETED,null,null,null,null)) {
+            return readTasks(cursor, new ArrayList<>(cursor.getCount()));
+        }
+    }
+    /** Returns the live tasks among {@code ids}, in list order. */
+    public List<ToDoModel> getTasks(int[] ids){
+        StringBuilder selection = new StringBuilder(NOT_DELETED).append(" AND ").append(COL1).append(" IN (");
+        for (int i = 0; i < ids.length; i++) {
+            selection.append(i == 0 ? "" : ",").append(ids[i]);
+        }
+        selection.append(')');
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.query(TABLE_NAME, null, selection.toString(), null, null, null, LIST_ORDER)) {
+            return readTasks(cursor, new ArrayList<>(ids.length));
+        }
+    }
+    /**
+     * Returns up to {@code limit} tasks of the list, in list order, that come after
+     * {@code after}, or the first page when it is null. Keying on (LIST_ID, POSITION, ID)
+     * walks TODO_LIST_POSITION_INDEX, so every page costs the same however deep the list
+     * is scrolled and however many other lists there are.
+     */
+    public List<ToDoModel> getTasksPage(int listId, @Nullable ToDoModel after, int limit){
+        SQLiteDatabase db = this.getReadableDatabase();
+        String selection = COL_LIST_ID + "=? AND " + NOT_DELETED;
+        String[] selectionArgs = {String.valueOf(listId)};
+        if (after != null) {
+            String position = String.valueOf(after.getPosition());
+            selection += " AND (" + COL_POSITION + "<? OR (" + COL_POSITION + "=? AND " + COL1 + "<?))";
+            selectionArgs = new String[]{selectionArgs[0], position, position, String.valueOf(after.getId())};
+        }
+        try (Cursor cursor = db.query(TABLE_NAME, null, selection, selectionArgs,
+                null, null, LIST_ORDER, String.valueOf(limit))) {
+            return readTasks(cursor, new ArrayList<>(limit));
+        }
+    }
+    /**
+     * Finds tasks whose words start with every word of {@code query}, in list order, using
+     * the FTS index rather than scanning TODO_TABLE.
+     */
+    public List<ToDoModel> searchTasks(String query, int limit){
+        String match = toPrefixMatch(query);
+        if (match.isEmpty()) {
+            return new ArrayList<>();
+        }
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_NAME + " WHERE " + COL1 + " IN (SELECT docid FROM "
+                + SEARCH_TABLE_NAME + " WHERE " + SEARCH_TABLE_NAME + " MATCH ?) AND " + NOT_DELETED + " ORDER BY " + LIST_ORDER + " LIMIT " + limit,
+                new String[]{match})) {
+            return readTasks(cursor, new ArrayList<>());
+        }
+    }
+    /**
+     * Open tasks due before {@code dueBefore}, overdue ones included, soonest first and by
+     * priority within the same due date. Served from TODO_UPCOMING_INDEX as a range scan.
+     */
+    public List<ToDoModel> getUpcomingTasks(long dueBefore, int limit){
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.query(TABLE_NAME, null, OPEN_DUE + " AND " + COL_DUE_DATE + "<?",
+                new String[]{String.valueOf(dueBefore)}, null, null, DUE_ORDER, String.valueOf(limit))) {
+            return readTasks(cursor, new ArrayList<>());
+        }
+    }
+    /** Open tasks due at or after {@code from} and before {@code to}, in the same order. */
+    public List<ToDoModel> getTasksDueBetween(long from, long to){
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.query(TABLE_NAME, null, OPEN_DUE + " AND " + COL_DUE_DATE + ">=? AND " + COL_DUE_DATE + "<?",
+                new String[]{String.valueOf(from), String.valueOf(to)}, null, null, DUE_ORDER)) {
+            return readTasks(cursor, new ArrayList<>());
+        }
+    }
+    /** The earliest due date of an open task after {@code after}, or 0 if there is none. */
+    public synchronized long getNextDueDate(long after){
+        prepareStatements();
+        nextDueDateStatement.bindLong(1, after);
+        return nextDueDateStatement.simpleQueryForLong();
+    }
+    /** Every list, oldest first. There are few enough to read in one go. */
+    public List<ListModel> getLists(){
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.query(LISTS_TABLE_NAME, new String[]{COL1, COL_LIST_NAME}, null, null, null, null, COL1)) {
+            List<ListModel> lists = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                ListModel list = new ListModel();
+                list.setId(cursor.getInt(0));
+                list.setName(cursor.getString(1));
+                lists.add(list);
+            }
+            return lists;
+        }
+    }
+    /** Creates an empty list and returns its id. */
+    public synchronized int insertList(String name){
+        ContentValues values = new ContentValues();
+        values.put(COL_LIST_NAME, name);
+        return (int) getWritableDatabase().insertOrThrow(LISTS_TABLE_NAME, null, values);
+    }
+    /** Turns "buy mil" into "buy* mil*". FTS operators and quotes are dropped from the input. */
+    static String toPrefixMatch(String query){
+        StringBuilder match = new StringBuilder();
+        for (String word : query.split("\\s+")) {
+            String token = word.replaceAll("[^\\p{L}\\p{N}]", "");
+            if (!token.isEmpty()) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append(token).append('*');
+            }
+        }
+        return match.toString();
+    }
+    private static List<ToDoModel> readTasks(Cursor cursor, List<ToDoModel> modelList){
+        TaskColumns columns = new TaskColumns(cursor);
+        while (cursor.moveToNext()) {
+            modelList.add(columns.read(cursor));
+        }
+        return modelList;
+    }
+
+    /** Column positions of a task cursor, looked up once per cursor instead of once per row. */
+    private static final class TaskColumns {
+        final int id;
+        final int task;
+        final int status;
+        final int position;
+        final int dueDate;
+        final int priority;
+        final int listId;
+
+        TaskColumns(Cursor cursor) {
+            id = cursor.getColumnIndexOrThrow(COL1);
+            task = cursor.getColumnIndexOrThrow(COL2);
+            status = cursor.getColumnIndexOrThrow(COL3);
+            position = cursor.getColumnIndexOrThrow(COL_POSITION);
+            dueDate = cursor.getColumnIndexOrThrow(COL_DUE_DATE);
+            priority = cursor.getColumnIndexOrThrow(COL_PRIORITY);
+            listId = cursor.getColumnIndexOrThrow(COL_LIST_ID);
+        }
+
+        ToDoModel read(Cursor cursor) {
+            ToDoModel model = new ToDoModel();
+            model.setId(cursor.getInt(id));
+            model.setTask(cursor.getString(task));
+            model.setStatus(cursor.getInt(status));
+            model.setPosition(cursor.getDouble(position));
+            model.setDueDate(cursor.isNull(dueDate) ? 0 : cursor.getLong(dueDate));
+            model.setPriority(cursor.getInt(priority));
+            model.setListId(cursor.getInt(listId));
+            return model;
+        }
+    }
+}
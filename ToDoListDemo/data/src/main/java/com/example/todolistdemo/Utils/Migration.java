@@ -0,0 +1,19 @@
+package com.example.todolistdemo.Utils;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+
+/** One step of the TODO_DATABASE schema, from {@link #startVersion} to {@link #endVersion}. */
+public abstract class Migration {
+    public final int startVersion;
+    public final int endVersion;
+
+    public Migration(int startVersion, int endVersion) {
+        this.startVersion = startVersion;
+        this.endVersion = endVersion;
+    }
+
+    /** Alters the schema in place. Existing rows must survive. */
+    public abstract void migrate(@NonNull SQLiteDatabase db);
+}
@@ -0,0 +1,165 @@
+package com.example.todolistdemo.Utils;
+
+import androidx.annotation.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Backup file format, written and read through one fixed-size buffer so memory use does
+ * not depend on how many tasks there are. After a header of magic, version and task count,
+ * each task, top of the list first, is a status byte, a priority byte, the due date as a
+ * long (0 for none) and a length-prefixed UTF-8 string (length -1 for a null task).
+ * Version 1 backups have no priority or due date and can still be read.
+ */
+final class TaskBackup {
+    private static final int MAGIC = 0x544F444F; // "TODO"
+    private static final int VERSION = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private TaskBackup() {
+    }
+
+    static final class Writer {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        Writer(WritableByteChannel channel, int count) {
+            this.channel = channel;
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(count);
+        }
+
+        void write(@Nullable String task, int status, long dueDate, int priority) throws IOException {
+            byte[] bytes = task == null ? null : task.getBytes(StandardCharsets.UTF_8);
+            ensureRemaining(2 * Byte.BYTES + Long.BYTES + Integer.BYTES);
+            buffer.put((byte) status).put((byte) priority).putLong(dueDate).putInt(bytes == null ? -1 : bytes.length);
+            if (bytes == null) {
+                return;
+            }
+            if (bytes.length > buffer.remaining()) {
+                drain();
+            }
+            if (bytes.length > buffer.remaining()) {
+                writeFully(ByteBuffer.wrap(bytes));
+            } else {
+                buffer.put(bytes);
+            }
+        }
+
+        /** Writes out whatever is still buffered. The channel stays open. */
+        void flush() throws IOException {
+            drain();
+        }
+
+        private void ensureRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+    }
+
+    static final class Reader {
+        private final ReadableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final int version;
+        private final int count;
+        @Nullable
+        private String task;
+        private int status;
+        private int priority;
+        private long dueDate;
+
+        Reader(ReadableByteChannel channel) throws IOException {
+            this.channel = channel;
+            buffer.flip();
+            require(3 * Integer.BYTES);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a task backup");
+            }
+            version = buffer.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported task backup version " + version);
+            }
+            count = buffer.getInt();
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        /** Reads the next task into the getters. */
+        void next() throws IOException {
+            if (version == 1) {
+                require(Byte.BYTES + Integer.BYTES);
+                status = buffer.get();
+            } else {
+                require(2 * Byte.BYTES + Long.BYTES + Integer.BYTES);
+                status = buffer.get();
+                priority = buffer.get();
+                dueDate = buffer.getLong();
+            }
+            int length = buffer.getInt();
+            if (length < 0) {
+                task = null;
+                return;
+            }
+            byte[] bytes = new byte[length];
+            int read = 0;
+            while (read < length) {
+                if (!buffer.hasRemaining()) {
+                    require(1);
+                }
+                int chunk = Math.min(buffer.remaining(), length - read);
+                buffer.get(bytes, read, chunk);
+                read += chunk;
+            }
+            task = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Nullable
+        String getTask() {
+            return task;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        int getPriority() {
+            return priority;
+        }
+
+        long getDueDate() {
+            return dueDate;
+        }
+
+        private void require(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Task backup is truncated");
+                }
+            }
+            buffer.flip();
+        }
+    }
+}
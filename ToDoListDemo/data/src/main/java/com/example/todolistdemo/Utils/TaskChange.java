@@ -0,0 +1,21 @@
+package com.example.todolistdemo.Utils;
+
+import androidx.annotation.NonNull;
+
+/** One committed write to the task table: what kind of change it was and which rows it touched. */
+public final class TaskChange {
+    public static final int INSERTED = 0;
+    public static final int UPDATED = 1;
+    public static final int DELETED = 2;
+    /** Too many rows changed to list them, for example after an import; {@link #ids} is empty. */
+    public static final int INVALIDATED = 3;
+
+    public final int type;
+    @NonNull
+    public final int[] ids;
+
+    public TaskChange(int type, @NonNull int[] ids) {
+        this.type = type;
+        this.ids = ids;
+    }
+}
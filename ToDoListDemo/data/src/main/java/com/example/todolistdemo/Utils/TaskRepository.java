@@ -0,0 +1,342 @@
+package com.example.todolistdemo.Utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.SparseIntArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.todolistdemo.Model.ListModel;
+import com.example.todolistdemo.Model.ToDoModel;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs every DatabaseHelper call on a background thread and posts results back to the
+ * main thread. Writes go through a single thread so they stay ordered. Reads share that
+ * thread too, unless the database uses write-ahead logging, which lets them run
+ * alongside the writer on their own pool.
+ */
+public class TaskRepository {
+    private static final String TAG = "TaskRepository";
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    /** Receives every committed change to the task table, on the main thread. */
+    public interface ChangeListener {
+        void onTasksChanged(TaskChange change);
+    }
+
+    private static TaskRepository instance;
+
+    private final DatabaseHelper myDb;
+    private static final int READER_THREADS = 2;
+    private static final long STATUS_FLUSH_DELAY_MS = 500;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService readExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    @Nullable
+    private Future<List<ToDoModel>> prefetchedPage;
+    private int prefetchedListId;
+    private int prefetchedLimit;
+    private final List<ChangeListener> changeListeners = new ArrayList<>();
+    // Latest status per task id, waiting for toggling to pause. Guarded by this.
+    private final SparseIntArray pendingStatuses = new SparseIntArray();
+    // Statuses handed to the writer but not committed yet; a read alongside it still sees
+    // the old ones on disk. Guarded by this.
+    private final SparseIntArray inFlightStatuses = new SparseIntArray();
+    private final Runnable flushStatusesRunnable = this::flushStatuses;
+
+    public static synchronized TaskRepository getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new TaskRepository(DatabaseHelper.getInstance(context));
+        }
+        return instance;
+    }
+
+    public TaskRepository(@NonNull DatabaseHelper myDb) {
+        this.myDb = myDb;
+        this.readExecutor = myDb.isWriteAheadLogging()
+                ? Executors.newFixedThreadPool(READER_THREADS)
+                : executor;
+        myDb.addOnTasksChangedListener(change -> mainHandler.post(() -> {
+            for (ChangeListener listener : new ArrayList<>(changeListeners)) {
+                listener.onTasksChanged(change);
+            }
+        }));
+    }
+
+    public void addChangeListener(@NonNull ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(@NonNull ChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Opens the database and reads the first page of tasks while the app is still starting,
+     * so the list can be filled as soon as it exists. The page is handed out once, to the
+     * first matching {@link #getTasksPage} call, unless a write makes it stale first.
+     */
+    public void prefetchFirstPage(int listId, int limit) {
+        executor.execute(myDb::warmUp);
+        Future<List<ToDoModel>> page = readExecutor.submit(() -> myDb.getTasksPage(listId, null, limit));
+        synchronized (this) {
+            prefetchedPage = page;
+            prefetchedListId = listId;
+            prefetchedLimit = limit;
+        }
+    }
+
+    @Nullable
+    private synchronized Future<List<ToDoModel>> takePrefetchedPage(int listId, @Nullable ToDoModel after, int limit) {
+        Future<List<ToDoModel>> page = null;
+        if (after == null && listId == prefetchedListId && limit == prefetchedLimit) {
+            page = prefetchedPage;
+        }
+        prefetchedPage = null;
+        return page;
+    }
+
+    private void write(Runnable task) {
+        synchronized (this) {
+            prefetchedPage = null;
+        }
+        // Buffered statuses go first so writes still land in the order they were made.
+        flushStatuses();
+        executor.execute(task);
+    }
+
+    public void insertTask(ToDoModel model) {
+        insertTask(model, null);
+    }
+
+    /** Inserts the task and hands it back with the row id SQLite assigned. */
+    public void insertTask(ToDoModel model, @Nullable Callback<ToDoModel> callback) {
+        write(() -> {
+            model.setId((int) myDb.insertTask(model));
+            deliver(callback, model);
+        });
+    }
+
+    public void updateTask(int id, String task) {
+        write(() -> myDb.updateTask(id, task));
+    }
+
+    public void updateTask(int id, String task, long dueDate, int priority) {
+        write(() -> myDb.updateTask(id, task, dueDate, priority));
+    }
+
+    public void updateStatus(int id, int status) {
+        write(() -> myDb.updateStatus(id, status));
+    }
+
+    /**
+     * Buffers a status change instead of writing it right away. Toggles of the same task
+     * collapse into its latest status, and everything buffered is written in one
+     * transaction once no toggle has come in for {@link #STATUS_FLUSH_DELAY_MS}, before any
+     * other write, or when {@link #flushStatuses} is called. Call from the main thread.
+     */
+    public void updateStatusLater(int id, int status) {
+        synchronized (this) {
+            prefetchedPage = null;
+            pendingStatuses.put(id, status);
+        }
+        mainHandler.removeCallbacks(flushStatusesRunnable);
+        mainHandler.postDelayed(flushStatusesRunnable, STATUS_FLUSH_DELAY_MS);
+    }
+
+    /** Writes buffered status changes now, for example when the app goes to the background. */
+    public void flushStatuses() {
+        mainHandler.removeCallbacks(flushStatusesRunnable);
+        int[] ids;
+        int[] statuses;
+        synchronized (this) {
+            if (pendingStatuses.size() == 0) {
+                return;
+            }
+            ids = new int[pendingStatuses.size()];
+            statuses = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = pendingStatuses.keyAt(i);
+                statuses[i] = pendingStatuses.valueAt(i);
+                inFlightStatuses.put(ids[i], statuses[i]);
+            }
+            pendingStatuses.clear();
+        }
+        executor.execute(() -> {
+            myDb.updateStatuses(ids, statuses);
+            synchronized (this) {
+                for (int i = 0; i < ids.length; i++) {
+                    // A later flush may already have queued a newer status for the task.
+                    int index = inFlightStatuses.indexOfKey(ids[i]);
+                    if (index >= 0 && inFlightStatuses.valueAt(index) == statuses[i]) {
+                        inFlightStatuses.removeAt(index);
+                    }
+                }
+            }
+        });
+    }
+
+    /** Moves the task to just below {@code aboveId}, or to the top of its list for -1. */
+    public void moveTask(int id, int aboveId) {
+        write(() -> myDb.moveTask(id, aboveId));
+    }
+
+    public void deleteTask(int id) {
+        write(() -> myDb.deleteTask(id));
+    }
+
+    public void insertTasks(List<ToDoModel> models, @Nullable Callback<List<ToDoModel>> callback) {
+        write(() -> {
+            myDb.insertTasks(models);
+            deliver(callback, models);
+        });
+    }
+
+    public void updateStatuses(int[] ids, int status) {
+        write(() -> myDb.updateStatuses(ids, status));
+    }
+
+    public void deleteTasks(int[] ids) {
+        write(() -> myDb.deleteTasks(ids));
+    }
+
+    public void restoreTasks(int[] ids) {
+        write(() -> myDb.restoreTasks(ids));
+    }
+
+    public void clearCompleted(int listId, @Nullable Callback<Integer> callback) {
+        write(() -> deliver(callback, myDb.clearCompleted(listId)));
+    }
+
+    /** Creates an empty list and hands back its id. */
+    public void insertList(@NonNull String name, @NonNull Callback<Integer> callback) {
+        write(() -> deliver(callback, myDb.insertList(name)));
+    }
+
+    /** Writes every task of the list to {@code channel}, then closes it. The callback gets the count, or -1 on failure. */
+    public void exportTasks(int listId, @NonNull WritableByteChannel channel, @NonNull Callback<Integer> callback) {
+        write(() -> {
+            int count;
+            try (WritableByteChannel out = channel) {
+                count = myDb.exportTasks(listId, out);
+            } catch (IOException e) {
+                Log.e(TAG, "Export failed", e);
+                count = -1;
+            }
+            deliver(callback, count);
+        });
+    }
+
+    /** Adds the tasks from a backup on {@code channel} to the list, then closes it. The callback gets the count, or -1 on failure. */
+    public void importTasks(int listId, @NonNull ReadableByteChannel channel, @NonNull Callback<Integer> callback) {
+        write(() -> {
+            int count;
+            try (ReadableByteChannel in = channel) {
+                count = myDb.importTasks(listId, in);
+            } catch (IOException e) {
+                Log.e(TAG, "Import failed", e);
+                count = -1;
+            }
+            deliver(callback, count);
+        });
+    }
+
+    public void getAllTasks(@NonNull Callback<List<ToDoModel>> callback) {
+        readExecutor.execute(() -> {
+            List<ToDoModel> tasks = myDb.getAllTasks();
+            deliverTasks(callback, tasks);
+        });
+    }
+
+    public void getTasks(int[] ids, @NonNull Callback<List<ToDoModel>> callback) {
+        readExecutor.execute(() -> {
+            List<ToDoModel> tasks = myDb.getTasks(ids);
+            deliverTasks(callback, tasks);
+        });
+    }
+
+    public void getLists(@NonNull Callback<List<ListModel>> callback) {
+        readExecutor.execute(() -> deliver(callback, myDb.getLists()));
+    }
+
+    public void getTasksPage(int listId, @Nullable ToDoModel after, int limit, @NonNull Callback<List<ToDoModel>> callback) {
+        Future<List<ToDoModel>> prefetched = takePrefetchedPage(listId, after, limit);
+        readExecutor.execute(() -> {
+            List<ToDoModel> page = null;
+            if (prefetched != null) {
+                try {
+                    page = prefetched.get();
+                } catch (ExecutionException | InterruptedException e) {
+                    // Fall back to reading the page again below.
+                }
+            }
+            if (page == null) {
+                page = myDb.getTasksPage(listId, after, limit);
+            }
+            deliverTasks(callback, page);
+        });
+    }
+
+    public void getUpcomingTasks(long dueBefore, int limit, @NonNull Callback<List<ToDoModel>> callback) {
+        readExecutor.execute(() -> {
+            List<ToDoModel> tasks = myDb.getUpcomingTasks(dueBefore, limit);
+            deliverTasks(callback, tasks);
+        });
+    }
+
+    public void getTasksDueBetween(long from, long to, @NonNull Callback<List<ToDoModel>> callback) {
+        readExecutor.execute(() -> {
+            List<ToDoModel> tasks = myDb.getTasksDueBetween(from, to);
+            deliverTasks(callback, tasks);
+        });
+    }
+
+    public void getNextDueDate(long after, @NonNull Callback<Long> callback) {
+        readExecutor.execute(() -> deliver(callback, myDb.getNextDueDate(after)));
+    }
+
+    public void searchTasks(String query, int limit, @NonNull Callback<List<ToDoModel>> callback) {
+        readExecutor.execute(() -> {
+            List<ToDoModel> results = myDb.searchTasks(query, limit);
+            deliverTasks(callback, results);
+        });
+    }
+
+    /**
+     * Like deliver(), but shows statuses that are buffered or still being written over the
+     * ones read from disk.
+     */
+    private void deliverTasks(@NonNull Callback<List<ToDoModel>> callback, List<ToDoModel> tasks) {
+        mainHandler.post(() -> {
+            synchronized (this) {
+                for (ToDoModel task : tasks) {
+                    int status = inFlightStatuses.get(task.getId(), task.getStatus());
+                    task.setStatus(pendingStatuses.get(task.getId(), status));
+                }
+            }
+            callback.onResult(tasks);
+        });
+    }
+
+    private <T> void deliver(@Nullable Callback<T> callback, T result) {
+        if (callback != null) {
+            mainHandler.post(() -> callback.onResult(result));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+plugins {
+    alias(libs.plugins.android.library)
+    alias(libs.plugins.benchmark)
+}
+
+android {
+    namespace = "com.example.todolistdemo.microbenchmark"
+    compileSdk = 35
+
+    defaultConfig {
+        minSdk = 26
+
+        testInstrumentationRunner = "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+    }
+
+    // Benchmarks run against a non-debuggable build so the numbers match what users get.
+    testBuildType = "release"
+    buildTypes {
+        release {
+            isDefault = true
+        }
+    }
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+}
+
+dependencies {
+    androidTestImplementation(project(":data"))
+    androidTestImplementation(libs.ext.junit)
+    androidTestImplementation(libs.benchmark.junit4)
+}
@@ -0,0 +1,160 @@
+package com.example.todolistdemo.microbenchmark;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.todolistdemo.Model.ToDoModel;
+import com.example.todolistdemo.Utils.DatabaseHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Time and allocations per call of the DatabaseHelper CRUD methods, with the table
+ * holding 1k, 10k and 100k tasks. Each write is undone with timing paused, so the
+ * table keeps its size for the whole run:
+ * ./gradlew :microbenchmark:connectedReleaseAndroidTest
+ */
+@RunWith(Parameterized.class)
+public class DatabaseHelperBenchmark {
+    private static final String DB_NAME = "microbenchmark.db";
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+    private static final long NOW = System.currentTimeMillis();
+
+    @Parameterized.Parameters(name = "rows={0}")
+    public static Collection<Object[]> rowCounts() {
+        return Arrays.asList(new Object[][]{{1_000}, {10_000}, {100_000}});
+    }
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int rowCount;
+    private final Random random = new Random(42);
+    private Context appContext;
+    private DatabaseHelper myDb;
+    private int[] ids;
+
+    public DatabaseHelperBenchmark(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    @Before
+    public void setUp() {
+        appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        appContext.deleteDatabase(DB_NAME);
+        myDb = new DatabaseHelper(appContext, DB_NAME);
+        List<ToDoModel> tasks = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            ToDoModel task = new ToDoModel();
+            task.setTask("Task " + i);
+            task.setStatus(i % 2);
+            // A tenth of the tasks are due, spread over the next 100 days.
+            if (i % 10 == 0) {
+                task.setDueDate(NOW + random.nextInt(100) * DAY_MS);
+                task.setPriority(i % 3);
+            }
+            tasks.add(task);
+        }
+        myDb.insertTasks(tasks);
+        ids = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            ids[i] = tasks.get(i).getId();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        myDb.close();
+        appContext.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void insertTask() {
+        BenchmarkState state = benchmarkRule.getState();
+        ToDoModel task = new ToDoModel();
+        task.setTask("Benchmark task");
+        while (state.keepRunning()) {
+            long id = myDb.insertTask(task);
+            state.pauseTiming();
+            myDb.deleteTask((int) id);
+            myDb.purgeDeleted(Long.MAX_VALUE, 1);
+            state.resumeTiming();
+        }
+    }
+
+    @Test
+    public void updateStatus() {
+        BenchmarkState state = benchmarkRule.getState();
+        int status = 0;
+        while (state.keepRunning()) {
+            myDb.updateStatus(randomId(), status);
+            status ^= 1;
+        }
+    }
+
+    @Test
+    public void updateTask() {
+        BenchmarkState state = benchmarkRule.getState();
+        String[] texts = {"Edited task", "Edited task again"};
+        int i = 0;
+        while (state.keepRunning()) {
+            myDb.updateTask(randomId(), texts[i++ & 1]);
+        }
+    }
+
+    @Test
+    public void deleteTask() {
+        BenchmarkState state = benchmarkRule.getState();
+        int[] restored = new int[1];
+        while (state.keepRunning()) {
+            int id = randomId();
+            myDb.deleteTask(id);
+            state.pauseTiming();
+            restored[0] = id;
+            myDb.restoreTasks(restored);
+            state.resumeTiming();
+        }
+    }
+
+    @Test
+    public void getAllTasks() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            myDb.getAllTasks();
+        }
+    }
+
+    @Test
+    public void getUpcomingTasks() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            myDb.getUpcomingTasks(NOW + 7 * DAY_MS, 100);
+        }
+    }
+
+    @Test
+    public void getNextDueDate() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            myDb.getNextDueDate(NOW);
+        }
+    }
+
+    private int randomId() {
+        return ids[random.nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.todolistdemo.microbenchmark;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.todolistdemo.Model.ListModel;
+import com.example.todolistdemo.Model.ToDoModel;
+import com.example.todolistdemo.Utils.DatabaseHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time per status write with two other threads paging through the list the whole time,
+ * with the rollback journal and with write-ahead logging. The page reads the readers got
+ * through are written to logcat under the JournalModeBenchmark tag:
+ * ./gradlew :microbenchmark:connectedReleaseAndroidTest
+ */
+@RunWith(Parameterized.class)
+public class JournalModeBenchmark {
+    private static final String TAG = "JournalModeBenchmark";
+    private static final String DB_NAME = "journal_benchmark.db";
+    private static final int TASK_COUNT = 10_000;
+    private static final int READER_THREADS = 2;
+    private static final int PAGE_SIZE = 50;
+
+    @Parameterized.Parameters(name = "wal={0}")
+    public static Collection<Object[]> journalModes() {
+        return Arrays.asList(new Object[][]{{false}, {true}});
+    }
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final boolean writeAheadLogging;
+    private Context appContext;
+    private DatabaseHelper myDb;
+    private int[] ids;
+
+    public JournalModeBenchmark(boolean writeAheadLogging) {
+        this.writeAheadLogging = writeAheadLogging;
+    }
+
+    @Before
+    public void setUp() {
+        appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        appContext.deleteDatabase(DB_NAME);
+        myDb = new DatabaseHelper(appContext, DB_NAME, writeAheadLogging);
+        List<ToDoModel> tasks = new ArrayList<>(TASK_COUNT);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            ToDoModel task = new ToDoModel();
+            task.setTask("Task " + i);
+            tasks.add(task);
+        }
+        myDb.insertTasks(tasks);
+        ids = new int[TASK_COUNT];
+        for (int i = 0; i < TASK_COUNT; i++) {
+            ids[i] = tasks.get(i).getId();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        myDb.close();
+        appContext.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void updateStatusWhilePaging() throws InterruptedException {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        CountDownLatch readersDone = new CountDownLatch(READER_THREADS);
+        for (int r = 0; r < READER_THREADS; r++) {
+            new Thread(() -> {
+                while (writing.get()) {
+                    myDb.getTasksPage(ListModel.DEFAULT_LIST_ID, null, PAGE_SIZE);
+                    reads.incrementAndGet();
+                }
+                readersDone.countDown();
+            }).start();
+        }
+
+        BenchmarkState state = benchmarkRule.getState();
+        long start = SystemClock.elapsedRealtime();
+        int i = 0;
+        try {
+            while (state.keepRunning()) {
+                myDb.updateStatus(ids[i % TASK_COUNT], i & 1);
+                i++;
+            }
+        } finally {
+            writing.set(false);
+            readersDone.await();
+        }
+        long elapsedMs = Math.max(1, SystemClock.elapsedRealtime() - start);
+        Log.i(TAG, (writeAheadLogging ? "WAL" : "rollback journal") + ": "
+                + reads.get() * 1000L / elapsedMs + " page reads/s alongside the writes");
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.todolistdemo.microbenchmark;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.todolistdemo.Model.ListModel;
+import com.example.todolistdemo.Model.ToDoModel;
+import com.example.todolistdemo.Utils.DatabaseHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Time to export a whole list to a backup and to import one into an empty list, with
+ * 10k and 100k tasks. Exports go to a channel that drops the bytes, so storage speed
+ * stays out of the numbers; each import is removed again with timing paused:
+ * ./gradlew :microbenchmark:connectedReleaseAndroidTest
+ */
+@RunWith(Parameterized.class)
+public class TaskBackupBenchmark {
+    private static final String SOURCE_DB = "backup_benchmark_source.db";
+    private static final String TARGET_DB = "backup_benchmark_target.db";
+    private static final int SEED_BATCH = 10_000;
+
+    @Parameterized.Parameters(name = "rows={0}")
+    public static Collection<Object[]> rowCounts() {
+        return Arrays.asList(new Object[][]{{10_000}, {100_000}});
+    }
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int rowCount;
+    private Context appContext;
+    private DatabaseHelper source;
+    private DatabaseHelper target;
+
+    public TaskBackupBenchmark(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    @Before
+    public void setUp() {
+        appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        appContext.deleteDatabase(SOURCE_DB);
+        appContext.deleteDatabase(TARGET_DB);
+        source = new DatabaseHelper(appContext, SOURCE_DB);
+        target = new DatabaseHelper(appContext, TARGET_DB);
+        for (int i = 0; i < rowCount; i += SEED_BATCH) {
+            List<ToDoModel> batch = new ArrayList<>(SEED_BATCH);
+            for (int j = i; j < Math.min(rowCount, i + SEED_BATCH); j++) {
+                ToDoModel task = new ToDoModel();
+                task.setTask("Task " + j);
+                task.setStatus(j % 2);
+                batch.add(task);
+            }
+            source.insertTasks(batch);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        source.close();
+        target.close();
+        appContext.deleteDatabase(SOURCE_DB);
+        appContext.deleteDatabase(TARGET_DB);
+    }
+
+    @Test
+    public void exportTasks() throws IOException {
+        BenchmarkState state = benchmarkRule.getState();
+        WritableByteChannel discard = new DiscardChannel();
+        while (state.keepRunning()) {
+            source.exportTasks(ListModel.DEFAULT_LIST_ID, discard);
+        }
+    }
+
+    @Test
+    public void importTasks() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        source.exportTasks(ListModel.DEFAULT_LIST_ID, Channels.newChannel(out));
+        byte[] backup = out.toByteArray();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            target.importTasks(ListModel.DEFAULT_LIST_ID, Channels.newChannel(new ByteArrayInputStream(backup)));
+            state.pauseTiming();
+            target.getWritableDatabase().execSQL("DELETE FROM TODO_TABLE");
+            state.resumeTiming();
+        }
+    }
+
+    private static final class DiscardChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer source) {
+            int written = source.remaining();
+            source.position(source.limit());
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -21,3 +21,7 @@ dependencyResolutionManagement {
 
 rootProject.name = "ToDoListDemo"
 include(":app")
+include(":data")
+include(":benchmark")
+include(":baselineprofile")
+include(":microbenchmark")